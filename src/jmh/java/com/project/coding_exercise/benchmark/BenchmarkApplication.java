@@ -0,0 +1,50 @@
+package com.project.coding_exercise.benchmark;
+
+import com.project.coding_exercise.CodingExerciseApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The application without its web server, on a private in-memory H2 database and a temp
+ * storage directory, with mapper logging silenced so it does not dominate the measurement.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+
+    private final Path storageDir;
+    private final ConfigurableApplicationContext context;
+
+    BenchmarkApplication(String... properties) throws IOException {
+        this.storageDir = Files.createTempDirectory("schema-benchmark-");
+        List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID()
+                        + ";DB_CLOSE_DELAY=-1",
+                "schema.storage.path=" + storageDir,
+                "schema.search.rebuild-on-startup=false",
+                "logging.level.root=WARN",
+                "logging.level.com.project.coding_exercise=WARN"));
+        all.addAll(List.of(properties));
+        // command-line arguments, since builder properties are defaults that application.properties overrides
+        this.context = new SpringApplicationBuilder(CodingExerciseApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(all.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(storageDir);
+    }
+}
@@ -0,0 +1,67 @@
+package com.project.coding_exercise.benchmark;
+
+import com.project.coding_exercise.db.dto.SchemaResponse;
+import com.project.coding_exercise.db.dto.SchemaUploadRequest;
+import com.project.coding_exercise.service.SchemaService;
+import com.project.coding_exercise.support.SyntheticSpecs;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getLatestSchema} and {@code getSchemaByVersion} across history sizes, with the
+ * read cache enabled (the production path) and disabled (database and blob store on every
+ * call).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReadBenchmark {
+
+    private static final String APPLICATION = "benchmark-app";
+    private static final String SERVICE = "benchmark-service";
+
+    @Param({"1", "100", "1000"})
+    public int historySize;
+
+    @Param({"true", "false"})
+    public boolean readCache;
+
+    private BenchmarkApplication application;
+    private SchemaService schemaService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        application = readCache ? new BenchmarkApplication() : new BenchmarkApplication("schema.cache.max-bytes=0");
+        schemaService = application.getBean(SchemaService.class);
+        for (int version = 1; version <= historySize; version++) {
+            byte[] content = SyntheticSpecs.generate("small", "json", "1.0." + version).getBytes(StandardCharsets.UTF_8);
+            SchemaUploadRequest request = new SchemaUploadRequest();
+            request.setApplicationName(APPLICATION);
+            request.setServiceName(SERVICE);
+            request.setFile(new MockMultipartFile("file", "spec.json", "application/json", content));
+            schemaService.uploadSchema(request);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        application.close();
+    }
+
+    @Benchmark
+    public SchemaResponse getLatestSchema() throws Exception {
+        return schemaService.getLatestSchema(APPLICATION, SERVICE);
+    }
+
+    @Benchmark
+    public SchemaResponse getSchemaByVersion() throws Exception {
+        return schemaService.getSchemaByVersion(APPLICATION, SERVICE, ThreadLocalRandom.current().nextInt(1, historySize + 1));
+    }
+}
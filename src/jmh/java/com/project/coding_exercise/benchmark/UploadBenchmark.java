@@ -0,0 +1,60 @@
+package com.project.coding_exercise.benchmark;
+
+import com.project.coding_exercise.db.dto.SchemaResponse;
+import com.project.coding_exercise.db.dto.SchemaUploadRequest;
+import com.project.coding_exercise.service.SchemaService;
+import com.project.coding_exercise.support.SyntheticSpecs;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code uploadSchema} end to end: spool, validate, blob commit and version insert into H2.
+ * Each invocation uploads distinct content (the info version changes), so neither the
+ * parse cache nor blob deduplication short-circuits the work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UploadBenchmark {
+
+    private static final String VERSION_PLACEHOLDER = "0.0.0-benchmark";
+
+    @Param({"small", "medium"})
+    public String size;
+
+    @Param({"json", "yaml"})
+    public String format;
+
+    private BenchmarkApplication application;
+    private SchemaService schemaService;
+    private String template;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        template = SyntheticSpecs.generate(size, format, VERSION_PLACEHOLDER);
+        application = new BenchmarkApplication();
+        schemaService = application.getBean(SchemaService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        application.close();
+    }
+
+    @Benchmark
+    public SchemaResponse upload() throws Exception {
+        byte[] content = template.replace(VERSION_PLACEHOLDER, "1.0." + sequence++).getBytes(StandardCharsets.UTF_8);
+        SchemaUploadRequest request = new SchemaUploadRequest();
+        request.setApplicationName("benchmark-app");
+        request.setServiceName("benchmark-service");
+        request.setFile(new MockMultipartFile("file", "spec." + format, "application/" + format, content));
+        return schemaService.uploadSchema(request);
+    }
+}
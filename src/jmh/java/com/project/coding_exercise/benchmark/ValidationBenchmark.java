@@ -0,0 +1,64 @@
+package com.project.coding_exercise.benchmark;
+
+import com.project.coding_exercise.service.SchemaService;
+import com.project.coding_exercise.support.SyntheticSpecs;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code validateOpenApiSpec} across spec sizes and formats. The parse cache is disabled,
+ * so every invocation spools, parses and resolves the document; {@code validateCached}
+ * measures the same call when the content hash is already cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ValidationBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    @Param({"json", "yaml"})
+    public String format;
+
+    private BenchmarkApplication uncached;
+    private BenchmarkApplication cached;
+    private SchemaService uncachedService;
+    private SchemaService cachedService;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        content = SyntheticSpecs.generate(size, format, "1.0.0").getBytes(StandardCharsets.UTF_8);
+        uncached = new BenchmarkApplication("schema.parse-cache.max-bytes=0");
+        cached = new BenchmarkApplication();
+        uncachedService = uncached.getBean(SchemaService.class);
+        cachedService = cached.getBean(SchemaService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        uncached.close();
+        cached.close();
+    }
+
+    @Benchmark
+    public boolean validate() throws Exception {
+        return uncachedService.validateOpenApiSpec(file());
+    }
+
+    @Benchmark
+    public boolean validateCached() throws Exception {
+        return cachedService.validateOpenApiSpec(file());
+    }
+
+    private MockMultipartFile file() {
+        return new MockMultipartFile("file", "spec." + format, "application/" + format, content);
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.coding_exercise.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples of one endpoint. Each client records into its own instance, so no
+ * synchronisation is needed; the per-client recorders are merged once the run is over.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+    private boolean sorted;
+
+    void record(long nanos, boolean ok) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!ok) {
+            errors++;
+        }
+        sorted = false;
+    }
+
+    void addAll(LatencyRecorder other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        errors += other.errors;
+        sorted = false;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    /**
+     * Nearest-rank percentile in milliseconds; {@code 100} is the maximum.
+     */
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return samples[Math.min(count, Math.max(1, rank)) - 1] / 1e6;
+    }
+}
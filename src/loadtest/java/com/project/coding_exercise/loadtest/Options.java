@@ -0,0 +1,107 @@
+package com.project.coding_exercise.loadtest;
+
+import com.project.coding_exercise.support.SyntheticSpecs;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Harness options, given as {@code key=value} arguments:
+ * <ul>
+ *   <li>{@code duration} / {@code warmup}: measured and discarded seconds (60 / 10)</li>
+ *   <li>{@code concurrency}: concurrent clients, each with one request in flight (32)</li>
+ *   <li>{@code mix}: endpoint weights
+ *       ({@code upload:1,service-latest:4,service-version:3,application-latest:1,application-version:1})</li>
+ *   <li>{@code sizes}: spec sizes for uploads, from {@code small}, {@code medium} and {@code large} (small,medium)</li>
+ *   <li>{@code applications}, {@code services}, {@code versions}: seeded applications, services per
+ *       application and versions per service (5 / 4 / 5)</li>
+ *   <li>{@code target}: base URL of a running instance instead of starting one</li>
+ *   <li>{@code output}: JSON result file ({@code target/load-test/result.json})</li>
+ * </ul>
+ */
+final class Options {
+
+    long durationSeconds = 60;
+    long warmupSeconds = 10;
+    int concurrency = 32;
+    Map<String, Integer> mix = parseMix("upload:1,service-latest:4,service-version:3,application-latest:1,application-version:1");
+    int totalWeight = totalWeight(mix);
+    List<String> specSizes = List.of("small", "medium");
+    int applications = 5;
+    int services = 4;
+    int seedVersions = 5;
+    String target;
+    String output = "target/load-test/result.json";
+
+    static Options parse(String[] args) {
+        Options options = new Options();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator)) {
+                case "duration" -> options.durationSeconds = Long.parseLong(value);
+                case "warmup" -> options.warmupSeconds = Long.parseLong(value);
+                case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                case "mix" -> {
+                    options.mix = parseMix(value);
+                    options.totalWeight = totalWeight(options.mix);
+                }
+                case "sizes" -> options.specSizes = List.of(value.split(","));
+                case "applications" -> options.applications = Integer.parseInt(value);
+                case "services" -> options.services = Integer.parseInt(value);
+                case "versions" -> options.seedVersions = Integer.parseInt(value);
+                case "target" -> options.target = value.replaceAll("/+$", "");
+                case "output" -> options.output = value;
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (options.durationSeconds < 1 || options.concurrency < 1 || options.applications < 1
+                || options.services < 1 || options.seedVersions < 1 || options.totalWeight < 1) {
+            throw new IllegalArgumentException("duration, concurrency, applications, services, versions and the mix must be positive");
+        }
+        options.specSizes.forEach(SyntheticSpecs::pathCount);
+        return options;
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("durationSeconds", durationSeconds);
+        description.put("warmupSeconds", warmupSeconds);
+        description.put("concurrency", concurrency);
+        description.put("mix", mix);
+        description.put("sizes", specSizes);
+        description.put("applications", applications);
+        description.put("services", services);
+        description.put("versions", seedVersions);
+        description.put("target", target);
+        return description;
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            String endpoint = weight[0].trim();
+            if (!List.of(SchemaLoadTest.UPLOAD, SchemaLoadTest.SERVICE_LATEST, SchemaLoadTest.SERVICE_VERSION,
+                    SchemaLoadTest.APPLICATION_LATEST, SchemaLoadTest.APPLICATION_VERSION).contains(endpoint)) {
+                throw new IllegalArgumentException("Unknown endpoint in mix: " + endpoint);
+            }
+            int parsed = weight.length > 1 ? Integer.parseInt(weight[1].trim()) : 1;
+            if (parsed > 0) {
+                mix.put(endpoint, parsed);
+            }
+        }
+        return mix;
+    }
+
+    private static int totalWeight(Map<String, Integer> mix) {
+        return mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
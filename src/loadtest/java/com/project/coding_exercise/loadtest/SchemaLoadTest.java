@@ -0,0 +1,289 @@
+package com.project.coding_exercise.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.coding_exercise.CodingExerciseApplication;
+import com.project.coding_exercise.support.SyntheticSpecs;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator. Starts the application on a random port against an
+ * in-memory H2 database and a temp storage directory (or targets a running instance with
+ * {@code target=http://host:port}), seeds schemas, then keeps {@code concurrency} clients
+ * busy with a weighted mix of uploads and the four schema GET endpoints. Per endpoint it
+ * reports throughput, error count and p50/p90/p99/p999/max latency, on the console and as
+ * JSON for comparing runs across commits.
+ * <p>
+ * Arguments are {@code key=value} harness options (see {@link Options}); arguments starting
+ * with {@code --} are passed to the application, e.g. {@code --spring.threads.virtual.enabled=true}.
+ */
+public final class SchemaLoadTest {
+
+    static final String UPLOAD = "upload";
+    static final String SERVICE_LATEST = "service-latest";
+    static final String SERVICE_VERSION = "service-version";
+    static final String APPLICATION_LATEST = "application-latest";
+    static final String APPLICATION_VERSION = "application-version";
+
+    private final Options options;
+    private final HttpClient client;
+    private final AtomicLong uploadSequence = new AtomicLong();
+    private final Map<String, byte[]> specsBySize = new LinkedHashMap<>();
+    private String baseUrl;
+
+    private SchemaLoadTest(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+            }
+        }
+        new SchemaLoadTest(options).run(applicationArgs);
+        System.exit(0);
+    }
+
+    private void run(List<String> applicationArgs) throws Exception {
+        for (String size : options.specSizes) {
+            specsBySize.put(size, SyntheticSpecs.generate(size, "json", "0.0.0-load").getBytes(StandardCharsets.UTF_8));
+        }
+        Path storageDir = null;
+        ConfigurableApplicationContext context = null;
+        try {
+            if (options.target != null) {
+                baseUrl = options.target;
+            } else {
+                storageDir = Files.createTempDirectory("schema-load-");
+                context = startApplication(storageDir, applicationArgs);
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            }
+            seed();
+            Map<String, LatencyRecorder> recorders = drive();
+            report(recorders, applicationArgs);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (storageDir != null) {
+                FileSystemUtils.deleteRecursively(storageDir);
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(Path storageDir, List<String> applicationArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--schema.storage.path=" + storageDir,
+                "--logging.level.root=WARN",
+                "--logging.level.com.project.coding_exercise=WARN"));
+        // later arguments win, so the caller can override any of the above
+        args.addAll(applicationArgs);
+        return new SpringApplicationBuilder(CodingExerciseApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private void seed() throws Exception {
+        for (int a = 0; a < options.applications; a++) {
+            for (int v = 0; v < options.seedVersions; v++) {
+                expectOk(upload(applicationName(a), null), "seed upload");
+                for (int s = 0; s < options.services; s++) {
+                    expectOk(upload(applicationName(a), serviceName(s)), "seed upload");
+                }
+            }
+        }
+    }
+
+    private Map<String, LatencyRecorder> drive() throws Exception {
+        long warmupEnd = System.nanoTime() + options.warmupSeconds * 1_000_000_000L;
+        long end = warmupEnd + options.durationSeconds * 1_000_000_000L;
+        List<Map<String, LatencyRecorder>> perClient = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Map<String, LatencyRecorder>>> futures = new ArrayList<>();
+            for (int c = 0; c < options.concurrency; c++) {
+                futures.add(clients.submit(() -> runClient(warmupEnd, end)));
+            }
+            for (Future<Map<String, LatencyRecorder>> future : futures) {
+                perClient.add(future.get());
+            }
+        }
+        Map<String, LatencyRecorder> merged = new LinkedHashMap<>();
+        for (String endpoint : options.mix.keySet()) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            perClient.forEach(client -> recorder.addAll(client.get(endpoint)));
+            merged.put(endpoint, recorder);
+        }
+        return merged;
+    }
+
+    private Map<String, LatencyRecorder> runClient(long warmupEnd, long end) {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        options.mix.keySet().forEach(endpoint -> recorders.put(endpoint, new LatencyRecorder()));
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            String endpoint = pickEndpoint();
+            int status;
+            try {
+                status = call(endpoint);
+            } catch (Exception e) {
+                status = -1;
+            }
+            long elapsed = System.nanoTime() - now;
+            if (now >= warmupEnd) {
+                recorders.get(endpoint).record(elapsed, status == 200);
+            }
+        }
+        return recorders;
+    }
+
+    private String pickEndpoint() {
+        int pick = ThreadLocalRandom.current().nextInt(options.totalWeight);
+        for (Map.Entry<String, Integer> entry : options.mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private int call(String endpoint) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String application = applicationName(random.nextInt(options.applications));
+        String service = serviceName(random.nextInt(options.services));
+        int version = 1 + random.nextInt(options.seedVersions);
+        return switch (endpoint) {
+            case UPLOAD -> upload(application, service);
+            case SERVICE_LATEST -> get("/schemas/" + application + "/" + service + "/latest");
+            case SERVICE_VERSION -> get("/schemas/" + application + "/" + service + "/" + version);
+            case APPLICATION_LATEST -> get("/schemas/" + application + "/latest");
+            case APPLICATION_VERSION -> get("/schemas/" + application + "/" + version);
+            default -> throw new IllegalArgumentException("Unknown endpoint: " + endpoint);
+        };
+    }
+
+    private int get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int upload(String applicationName, String serviceName) throws Exception {
+        String size = options.specSizes.get(ThreadLocalRandom.current().nextInt(options.specSizes.size()));
+        // a distinct info.version per upload, so every upload is new content
+        byte[] spec = new String(specsBySize.get(size), StandardCharsets.UTF_8)
+                .replace("0.0.0-load", "1.0." + uploadSequence.incrementAndGet())
+                .getBytes(StandardCharsets.UTF_8);
+        String boundary = "load-" + UUID.randomUUID();
+        StringBuilder head = new StringBuilder();
+        head.append("--").append(boundary).append("\r\nContent-Disposition: form-data; name=\"applicationName\"\r\n\r\n")
+                .append(applicationName).append("\r\n");
+        if (serviceName != null) {
+            head.append("--").append(boundary).append("\r\nContent-Disposition: form-data; name=\"serviceName\"\r\n\r\n")
+                    .append(serviceName).append("\r\n");
+        }
+        head.append("--").append(boundary).append("\r\nContent-Disposition: form-data; name=\"file\"; filename=\"spec.json\"\r\n")
+                .append("Content-Type: application/json\r\n\r\n");
+        String tail = "\r\n--" + boundary + "--\r\n";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/schemas/upload"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(
+                        head.toString().getBytes(StandardCharsets.UTF_8), spec, tail.getBytes(StandardCharsets.UTF_8))))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private void report(Map<String, LatencyRecorder> recorders, List<String> applicationArgs) throws IOException {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.printf("%-20s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            double throughput = recorder.count() / (double) options.durationSeconds;
+            System.out.printf("%-20s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), recorder.count(),
+                    recorder.errors(), throughput, recorder.percentileMillis(50), recorder.percentileMillis(90),
+                    recorder.percentileMillis(99), recorder.percentileMillis(99.9), recorder.percentileMillis(100));
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", recorder.count());
+            stats.put("errors", recorder.errors());
+            stats.put("throughputPerSecond", throughput);
+            stats.put("p50Millis", recorder.percentileMillis(50));
+            stats.put("p90Millis", recorder.percentileMillis(90));
+            stats.put("p99Millis", recorder.percentileMillis(99));
+            stats.put("p999Millis", recorder.percentileMillis(99.9));
+            stats.put("maxMillis", recorder.percentileMillis(100));
+            endpoints.put(entry.getKey(), stats);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", Instant.now().toString());
+        result.put("commit", gitCommit());
+        result.put("options", options.describe());
+        result.put("applicationArguments", applicationArgs);
+        result.put("endpoints", endpoints);
+        Path output = Paths.get(options.output);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), result);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static void expectOk(int status, String operation) {
+        if (status != 200) {
+            throw new IllegalStateException(operation + " returned HTTP " + status);
+        }
+    }
+
+    private static String applicationName(int index) {
+        return "load-app-" + index;
+    }
+
+    private static String serviceName(int index) {
+        return "service-" + index;
+    }
+
+    private static String gitCommit() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "HEAD").redirectErrorStream(true).start();
+            String commit = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return process.waitFor() == 0 ? commit : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
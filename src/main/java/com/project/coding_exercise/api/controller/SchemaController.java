@@ -1,26 +1,62 @@
 package com.project.coding_exercise.api.controller;
 
+import com.project.coding_exercise.db.dto.BatchUploadResponse;
+import com.project.coding_exercise.db.dto.RawSchemaContent;
+import com.project.coding_exercise.db.dto.SchemaCacheStats;
+import com.project.coding_exercise.db.dto.SchemaDiff;
 import com.project.coding_exercise.db.dto.SchemaResponse;
+import com.project.coding_exercise.db.dto.SchemaSearchHit;
+import com.project.coding_exercise.db.dto.SchemaUploadJob;
 import com.project.coding_exercise.db.dto.SchemaUploadRequest;
+import com.project.coding_exercise.db.dto.SchemaVersionPage;
+import com.project.coding_exercise.db.dto.StoredBlob;
+import com.project.coding_exercise.service.InvalidSchemaPointerException;
 import com.project.coding_exercise.service.SchemaService;
+import com.project.coding_exercise.service.SchemaRefUnavailableException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
 @RestController
 @RequestMapping("/schemas")
 @Tag(name = "Schema Management", description = "API for managing OpenAPI schemas")
 public class SchemaController {
 
+    private static final CacheControl LATEST_CACHE_CONTROL = CacheControl.noCache();
+    private static final CacheControl VERSIONED_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final Map<String, String> FORMATS = Map.of(
+            "json", MediaType.APPLICATION_JSON_VALUE,
+            "yaml", MediaType.APPLICATION_YAML_VALUE);
+    private static final Map<String, String> YAML_SUBTYPES = Map.of(
+            "yaml", MediaType.APPLICATION_YAML_VALUE,
+            "x-yaml", MediaType.APPLICATION_YAML_VALUE);
+
     @Autowired
     private SchemaService schemaService;
 
@@ -32,6 +68,7 @@ public class SchemaController {
                     content = @Content(mediaType = "application/json", 
                     schema = @Schema(implementation = SchemaResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid schema or request"),
+        @ApiResponse(responseCode = "503", description = "A referenced document could not be fetched; retry later"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<SchemaResponse> uploadSchema(
@@ -52,11 +89,183 @@ public class SchemaController {
             
             SchemaResponse response = schemaService.uploadSchema(request);
             return ResponseEntity.ok(response);
+        } catch (SchemaRefUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(value = "/upload/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload OpenAPI Schema Asynchronously",
+               description = "Accept an OpenAPI specification file and validate and store it in the background. "
+                       + "Poll the returned job (see the Location header) for the outcome")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Upload accepted",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = SchemaUploadJob.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request"),
+        @ApiResponse(responseCode = "503", description = "Upload queue is full; retry later")
+    })
+    public ResponseEntity<SchemaUploadJob> submitUpload(
+            @Parameter(description = "Application name", required = true)
+            @RequestParam("applicationName") String applicationName,
+
+            @Parameter(description = "Service name (optional)")
+            @RequestParam(value = "serviceName", required = false) String serviceName,
+
+            @Parameter(description = "OpenAPI schema file (JSON or YAML)", required = true)
+            @RequestParam("file") MultipartFile file) {
+
+        try {
+            SchemaUploadRequest request = new SchemaUploadRequest();
+            request.setApplicationName(applicationName);
+            request.setServiceName(serviceName);
+            request.setFile(file);
+
+            SchemaUploadJob job = schemaService.submitUpload(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/schemas/upload/jobs/" + job.getJobId()))
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @GetMapping("/upload/jobs/{jobId}")
+    @Operation(summary = "Get Upload Job", description = "Status of an asynchronous upload, with the stored schema once it succeeded")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job found",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = SchemaUploadJob.class))),
+        @ApiResponse(responseCode = "404", description = "Unknown or expired job")
+    })
+    public ResponseEntity<SchemaUploadJob> getUploadJob(
+            @Parameter(description = "Job id returned by the asynchronous upload", required = true)
+            @PathVariable String jobId) {
+
+        SchemaUploadJob job = schemaService.getUploadJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Batch Upload OpenAPI Schemas",
+               description = "Upload many OpenAPI files (or a zip of them) for one application. Each file is registered "
+                       + "as the service named after its file name without extension; results are reported per file")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed; see per-file results",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BatchUploadResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BatchUploadResponse> uploadSchemas(
+            @Parameter(description = "Application name", required = true)
+            @RequestParam("applicationName") String applicationName,
+
+            @Parameter(description = "OpenAPI schema files (JSON or YAML)")
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+
+            @Parameter(description = "Zip archive of OpenAPI schema files")
+            @RequestParam(value = "archive", required = false) MultipartFile archive) {
+
+        if ((files == null || files.isEmpty()) && (archive == null || archive.isEmpty())) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(schemaService.uploadSchemas(applicationName, files, archive));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{applicationName}/{serviceName}/versions")
+    @Operation(summary = "List Schema Versions",
+               description = "Page through the version history of an application and service, newest first. "
+                       + "Returns metadata only; pass the returned nextCursor to fetch the following page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Versions retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = SchemaVersionPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
+        @ApiResponse(responseCode = "404", description = "Application or service not found")
+    })
+    public ResponseEntity<SchemaVersionPage> getSchemaVersions(
+            @Parameter(description = "Application name", required = true)
+            @PathVariable String applicationName,
+
+            @Parameter(description = "Service name", required = true)
+            @PathVariable String serviceName,
+
+            @Parameter(description = "Return versions below this one (nextCursor of the previous page)")
+            @RequestParam(value = "cursor", required = false) Integer cursor,
+
+            @Parameter(description = "Page size")
+            @RequestParam(value = "limit", required = false) Integer limit) {
+
+        return versionHistory(applicationName, serviceName, cursor, limit);
+    }
+
+    @GetMapping("/{applicationName}/{serviceName}/diff")
+    @Operation(summary = "Diff Schema Versions",
+               description = "Structural diff of two versions of a service: added, removed and changed paths, operations, "
+                       + "parameters and components. 'to' defaults to the latest version and 'from' to the version before 'to'")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Diff computed successfully",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = SchemaDiff.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid version"),
+        @ApiResponse(responseCode = "404", description = "Application, service or version not found")
+    })
+    public ResponseEntity<SchemaDiff> getSchemaDiff(
+            @Parameter(description = "Application name", required = true)
+            @PathVariable String applicationName,
+
+            @Parameter(description = "Service name", required = true)
+            @PathVariable String serviceName,
+
+            @Parameter(description = "Base version")
+            @RequestParam(value = "from", required = false) Integer from,
+
+            @Parameter(description = "Target version")
+            @RequestParam(value = "to", required = false) Integer to) {
+
+        if ((from != null && from < 1) || (to != null && to < 1)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(schemaService.getSchemaDiff(applicationName, serviceName, from, to));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{applicationName}/versions")
+    @Operation(summary = "List Application Schema Versions",
+               description = "Page through the version history of an application (no service), newest first. "
+                       + "Returns metadata only; pass the returned nextCursor to fetch the following page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Versions retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = SchemaVersionPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
+        @ApiResponse(responseCode = "404", description = "Application not found")
+    })
+    public ResponseEntity<SchemaVersionPage> getApplicationSchemaVersions(
+            @Parameter(description = "Application name", required = true)
+            @PathVariable String applicationName,
+
+            @Parameter(description = "Return versions below this one (nextCursor of the previous page)")
+            @RequestParam(value = "cursor", required = false) Integer cursor,
+
+            @Parameter(description = "Page size")
+            @RequestParam(value = "limit", required = false) Integer limit) {
+
+        return versionHistory(applicationName, null, cursor, limit);
+    }
+
     @GetMapping("/{applicationName}/{serviceName}/latest")
     @Operation(summary = "Get Latest Schema", 
                description = "Retrieve the latest version of a schema for a specific application and service")
@@ -64,6 +273,7 @@ public class SchemaController {
         @ApiResponse(responseCode = "200", description = "Schema retrieved successfully",
                     content = @Content(mediaType = "application/json", 
                     schema = @Schema(implementation = SchemaResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Schema not modified since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Schema not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
@@ -72,14 +282,17 @@ public class SchemaController {
             @PathVariable String applicationName,
             
             @Parameter(description = "Service name", required = true)
-            @PathVariable String serviceName) {
+            @PathVariable String serviceName,
+
+            @Parameter(description = "json or yaml to convert the schema content; the stored format otherwise")
+            @RequestParam(value = "format", required = false) String format,
+
+            @Parameter(description = "ETag of a previously fetched schema")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        try {
-            SchemaResponse response = schemaService.getLatestSchema(applicationName, serviceName);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        return conditionalGet(ifNoneMatch, LATEST_CACHE_CONTROL, format,
+                () -> schemaService.getLatestSchemaMetadata(applicationName, serviceName),
+                () -> schemaService.getLatestSchema(applicationName, serviceName));
     }
 
     @GetMapping("/{applicationName}/{serviceName}/{version}")
@@ -89,6 +302,7 @@ public class SchemaController {
         @ApiResponse(responseCode = "200", description = "Schema retrieved successfully",
                     content = @Content(mediaType = "application/json", 
                     schema = @Schema(implementation = SchemaResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Schema not modified since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Schema not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
@@ -100,14 +314,17 @@ public class SchemaController {
             @PathVariable String serviceName,
             
             @Parameter(description = "Schema version", required = true)
-            @PathVariable Integer version) {
+            @PathVariable Integer version,
+
+            @Parameter(description = "json or yaml to convert the schema content; the stored format otherwise")
+            @RequestParam(value = "format", required = false) String format,
+
+            @Parameter(description = "ETag of a previously fetched schema")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        try {
-            SchemaResponse response = schemaService.getSchemaByVersion(applicationName, serviceName, version);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        return conditionalGet(ifNoneMatch, VERSIONED_CACHE_CONTROL, format,
+                () -> schemaService.getSchemaMetadataByVersion(applicationName, serviceName, version),
+                () -> schemaService.getSchemaByVersion(applicationName, serviceName, version));
     }
 
     @GetMapping("/{applicationName}/latest")
@@ -117,19 +334,23 @@ public class SchemaController {
         @ApiResponse(responseCode = "200", description = "Schema retrieved successfully",
                     content = @Content(mediaType = "application/json", 
                     schema = @Schema(implementation = SchemaResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Schema not modified since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Schema not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<SchemaResponse> getLatestApplicationSchema(
             @Parameter(description = "Application name", required = true)
-            @PathVariable String applicationName) {
+            @PathVariable String applicationName,
+
+            @Parameter(description = "json or yaml to convert the schema content; the stored format otherwise")
+            @RequestParam(value = "format", required = false) String format,
+
+            @Parameter(description = "ETag of a previously fetched schema")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        try {
-            SchemaResponse response = schemaService.getLatestSchema(applicationName, null);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        return conditionalGet(ifNoneMatch, LATEST_CACHE_CONTROL, format,
+                () -> schemaService.getLatestSchemaMetadata(applicationName, null),
+                () -> schemaService.getLatestSchema(applicationName, null));
     }
 
     @GetMapping("/{applicationName}/{version}")
@@ -139,6 +360,7 @@ public class SchemaController {
         @ApiResponse(responseCode = "200", description = "Schema retrieved successfully",
                     content = @Content(mediaType = "application/json", 
                     schema = @Schema(implementation = SchemaResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Schema not modified since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Schema not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
@@ -147,13 +369,359 @@ public class SchemaController {
             @PathVariable String applicationName,
             
             @Parameter(description = "Schema version", required = true)
-            @PathVariable Integer version) {
+            @PathVariable Integer version,
+
+            @Parameter(description = "json or yaml to convert the schema content; the stored format otherwise")
+            @RequestParam(value = "format", required = false) String format,
+
+            @Parameter(description = "ETag of a previously fetched schema")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
+        return conditionalGet(ifNoneMatch, VERSIONED_CACHE_CONTROL, format,
+                () -> schemaService.getSchemaMetadataByVersion(applicationName, null, version),
+                () -> schemaService.getSchemaByVersion(applicationName, null, version));
+    }
+
+    @GetMapping("/{applicationName}/{serviceName}/latest/raw")
+    @Operation(summary = "Download Latest Schema File",
+               description = "Stream the latest stored schema file of an application and service with its original media type")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Schema file streamed successfully"),
+        @ApiResponse(responseCode = "304", description = "Schema not modified since the given ETag"),
+        @ApiResponse(responseCode = "400", description = "The pointer is not a valid JSON Pointer"),
+        @ApiResponse(responseCode = "404", description = "Schema not found, or nothing at the given pointer")
+    })
+    public ResponseEntity<Resource> getLatestRawSchema(
+            @Parameter(description = "Application name", required = true)
+            @PathVariable String applicationName,
+
+            @Parameter(description = "Service name", required = true)
+            @PathVariable String serviceName,
+
+            @Parameter(description = "JSON Pointer (RFC 6901) of the subtree to return instead of the whole file, e.g. /components/schemas/Order")
+            @RequestParam(value = "pointer", required = false) String pointer,
+
+            @Parameter(description = "application/json or application/yaml to convert the schema; the stored format otherwise")
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String mediaType = negotiateMediaType(accept);
+        return rawGet(acceptEncoding, ifNoneMatch, LATEST_CACHE_CONTROL,
+                () -> pointer != null ? schemaService.getLatestRawSchemaFragment(applicationName, serviceName, pointer, mediaType)
+                        : mediaType != null ? schemaService.getLatestRawSchemaRendition(applicationName, serviceName, mediaType)
+                        : schemaService.getLatestRawSchema(applicationName, serviceName));
+    }
+
+    @GetMapping("/{applicationName}/{serviceName}/{version}/raw")
+    @Operation(summary = "Download Schema File by Version",
+               description = "Stream a specific stored schema file of an application and service with its original media type")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Schema file streamed successfully"),
+        @ApiResponse(responseCode = "304", description = "Schema not modified since the given ETag"),
+        @ApiResponse(responseCode = "400", description = "The pointer is not a valid JSON Pointer"),
+        @ApiResponse(responseCode = "404", description = "Schema not found, or nothing at the given pointer")
+    })
+    public ResponseEntity<Resource> getRawSchemaByVersion(
+            @Parameter(description = "Application name", required = true)
+            @PathVariable String applicationName,
+
+            @Parameter(description = "Service name", required = true)
+            @PathVariable String serviceName,
+
+            @Parameter(description = "Schema version", required = true)
+            @PathVariable Integer version,
+
+            @Parameter(description = "JSON Pointer (RFC 6901) of the subtree to return instead of the whole file, e.g. /components/schemas/Order")
+            @RequestParam(value = "pointer", required = false) String pointer,
+
+            @Parameter(description = "application/json or application/yaml to convert the schema; the stored format otherwise")
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String mediaType = negotiateMediaType(accept);
+        return rawGet(acceptEncoding, ifNoneMatch, VERSIONED_CACHE_CONTROL,
+                () -> pointer != null ? schemaService.getRawSchemaFragmentByVersion(applicationName, serviceName, version, pointer, mediaType)
+                        : mediaType != null ? schemaService.getRawSchemaRenditionByVersion(applicationName, serviceName, version, mediaType)
+                        : schemaService.getRawSchemaByVersion(applicationName, serviceName, version));
+    }
+
+    @GetMapping("/{applicationName}/latest/raw")
+    @Operation(summary = "Download Latest Application Schema File",
+               description = "Stream the latest stored schema file of an application (no service) with its original media type")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Schema file streamed successfully"),
+        @ApiResponse(responseCode = "304", description = "Schema not modified since the given ETag"),
+        @ApiResponse(responseCode = "400", description = "The pointer is not a valid JSON Pointer"),
+        @ApiResponse(responseCode = "404", description = "Schema not found, or nothing at the given pointer")
+    })
+    public ResponseEntity<Resource> getLatestRawApplicationSchema(
+            @Parameter(description = "Application name", required = true)
+            @PathVariable String applicationName,
+
+            @Parameter(description = "JSON Pointer (RFC 6901) of the subtree to return instead of the whole file, e.g. /components/schemas/Order")
+            @RequestParam(value = "pointer", required = false) String pointer,
+
+            @Parameter(description = "application/json or application/yaml to convert the schema; the stored format otherwise")
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String mediaType = negotiateMediaType(accept);
+        return rawGet(acceptEncoding, ifNoneMatch, LATEST_CACHE_CONTROL,
+                () -> pointer != null ? schemaService.getLatestRawSchemaFragment(applicationName, null, pointer, mediaType)
+                        : mediaType != null ? schemaService.getLatestRawSchemaRendition(applicationName, null, mediaType)
+                        : schemaService.getLatestRawSchema(applicationName, null));
+    }
+
+    @GetMapping("/{applicationName}/{version}/raw")
+    @Operation(summary = "Download Application Schema File by Version",
+               description = "Stream a specific stored schema file of an application (no service) with its original media type")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Schema file streamed successfully"),
+        @ApiResponse(responseCode = "304", description = "Schema not modified since the given ETag"),
+        @ApiResponse(responseCode = "400", description = "The pointer is not a valid JSON Pointer"),
+        @ApiResponse(responseCode = "404", description = "Schema not found, or nothing at the given pointer")
+    })
+    public ResponseEntity<Resource> getRawApplicationSchemaByVersion(
+            @Parameter(description = "Application name", required = true)
+            @PathVariable String applicationName,
+
+            @Parameter(description = "Schema version", required = true)
+            @PathVariable Integer version,
+
+            @Parameter(description = "JSON Pointer (RFC 6901) of the subtree to return instead of the whole file, e.g. /components/schemas/Order")
+            @RequestParam(value = "pointer", required = false) String pointer,
+
+            @Parameter(description = "application/json or application/yaml to convert the schema; the stored format otherwise")
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String mediaType = negotiateMediaType(accept);
+        return rawGet(acceptEncoding, ifNoneMatch, VERSIONED_CACHE_CONTROL,
+                () -> pointer != null ? schemaService.getRawSchemaFragmentByVersion(applicationName, null, version, pointer, mediaType)
+                        : mediaType != null ? schemaService.getRawSchemaRenditionByVersion(applicationName, null, version, mediaType)
+                        : schemaService.getRawSchemaByVersion(applicationName, null, version));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search Schemas",
+               description = "Find the latest schemas that expose a path template, method, operationId, tag or component. "
+                       + "All given criteria must match; path and method together match a single operation")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching schemas",
+                    content = @Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = SchemaSearchHit.class)))),
+        @ApiResponse(responseCode = "400", description = "No search criterion given")
+    })
+    public ResponseEntity<List<SchemaSearchHit>> searchSchemas(
+            @Parameter(description = "Path template, e.g. /users/{id}")
+            @RequestParam(value = "path", required = false) String path,
+
+            @Parameter(description = "HTTP method, e.g. GET")
+            @RequestParam(value = "method", required = false) String method,
+
+            @Parameter(description = "Operation id")
+            @RequestParam(value = "operationId", required = false) String operationId,
+
+            @Parameter(description = "Tag")
+            @RequestParam(value = "tag", required = false) String tag,
+
+            @Parameter(description = "Component name, e.g. User")
+            @RequestParam(value = "component", required = false) String component) {
+
         try {
-            SchemaResponse response = schemaService.getSchemaByVersion(applicationName, null, version);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(schemaService.searchSchemas(path, method, operationId, tag, component));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Get Schema Cache Statistics",
+               description = "Hit, miss and eviction counts of the in-process schema read cache")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = SchemaCacheStats.class)))
+    })
+    public ResponseEntity<SchemaCacheStats> getCacheStats() {
+        return ResponseEntity.ok(schemaService.getCacheStats());
+    }
+
+    private ResponseEntity<SchemaVersionPage> versionHistory(String applicationName, String serviceName,
+                                                             Integer cursor, Integer limit) {
+        if ((cursor != null && cursor < 1) || (limit != null && limit < 1)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(schemaService.getVersionHistory(applicationName, serviceName, cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Serves a schema read with a strong ETag derived from the schema id and version, which
+     * never change once uploaded. When the client sends {@code If-None-Match}, only the
+     * metadata is resolved first so a matching ETag is answered with 304 without reading
+     * the schema file.
+     */
+    private ResponseEntity<SchemaResponse> conditionalGet(String ifNoneMatch, CacheControl cacheControl, String format,
+                                                          SchemaLookup metadataLookup, SchemaLookup schemaLookup) {
+        if (format != null && !FORMATS.containsKey(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        String mediaType = format != null ? FORMATS.get(format) : null;
+        try {
+            if (ifNoneMatch != null) {
+                String eTag = eTag(metadataLookup.get(), format);
+                if (eTagMatches(ifNoneMatch, eTag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+                }
+            }
+            SchemaResponse response = schemaLookup.get();
+            if (mediaType != null) {
+                response = schemaService.renderSchema(response, mediaType);
+            }
+            return ResponseEntity.ok().eTag(eTag(response, format)).cacheControl(cacheControl).body(response);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * Streams the stored schema file as a {@link Resource}, so its bytes are copied straight
+     * to the response and never become a heap {@code String}. Blobs stored gzip-compressed
+     * are sent as-is with {@code Content-Encoding: gzip} when the client accepts it, and
+     * decoded on the fly otherwise. Versions rebuilt from a delta chain are sent from memory
+     * and blobs in a storage segment from its mapping. The ETag comes from the content hash
+     * and stored encoding alone, so a {@code 304} never opens the blob.
+     */
+    private ResponseEntity<Resource> rawGet(String acceptEncoding, String ifNoneMatch, CacheControl cacheControl,
+                                            RawSchemaLookup lookup) {
+        try {
+            RawSchemaContent raw = lookup.get();
+            boolean passThrough = raw.getContentEncoding() != null && acceptsEncoding(acceptEncoding, raw.getContentEncoding());
+            String eTag = rawETag(raw, passThrough ? raw.getContentEncoding() : null);
+            if (ifNoneMatch != null && eTagMatches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .cacheControl(cacheControl)
+                        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                        .build();
+            }
+
+            StoredBlob blob = raw.openBlob();
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(MediaType.parseMediaType(raw.getMediaType()));
+            if (blob.getContentEncoding() == null) {
+                return builder.contentLength(blob.getSize()).body(storedResource(blob));
+            }
+            if (passThrough) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, blob.getContentEncoding())
+                              .contentLength(blob.getSize())
+                              .body(storedResource(blob));
+            }
+            return builder.body(new InputStreamResource(new GZIPInputStream(blob.openStream())));
+        } catch (InvalidSchemaPointerException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private static Resource storedResource(StoredBlob blob) throws IOException {
+        if (blob.getPath() != null) {
+            return new FileSystemResource(blob.getPath());
+        }
+        return blob.getContent() != null ? new ByteArrayResource(blob.getContent()) : new InputStreamResource(blob.openStream());
+    }
+
+    private static String rawETag(RawSchemaContent raw, String contentEncoding) {
+        String base = raw.getContentHash() != null ? raw.getContentHash() : raw.getId() + "-" + raw.getVersion() + "-raw";
+        return "\"" + base + (contentEncoding != null ? "-" + contentEncoding : "") + "\"";
+    }
+
+    private static boolean acceptsEncoding(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(encoding)) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static String eTag(SchemaResponse response, String format) {
+        return "\"" + response.getId() + "-" + response.getVersion() + (format != null ? "-" + format : "") + "\"";
+    }
+
+    /**
+     * The schema format the client prefers, or {@code null} when it does not prefer JSON or
+     * YAML over anything else (no {@code Accept}, {@code *}{@code /*}, a browser's list), in
+     * which case the stored format is sent.
+     */
+    static String negotiateMediaType(String accept) {
+        if (accept == null) {
+            return null;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        String preferred = null;
+        double preferredQuality = 0;
+        double otherQuality = 0;
+        for (MediaType type : acceptable) {
+            double quality = type.getQualityValue();
+            String format = MediaType.APPLICATION_JSON.equalsTypeAndSubtype(type) ? MediaType.APPLICATION_JSON_VALUE
+                    : "application".equals(type.getType()) || "text".equals(type.getType()) ? YAML_SUBTYPES.get(type.getSubtype())
+                    : null;
+            if (format == null) {
+                otherQuality = Math.max(otherQuality, quality);
+            } else if (quality > preferredQuality) {
+                preferred = format;
+                preferredQuality = quality;
+            }
+        }
+        return preferredQuality > 0 && preferredQuality >= otherQuality ? preferred : null;
+    }
+
+    private static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface SchemaLookup {
+        SchemaResponse get() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface RawSchemaLookup {
+        RawSchemaContent get() throws Exception;
+    }
 }
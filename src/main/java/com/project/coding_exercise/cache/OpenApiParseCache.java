@@ -0,0 +1,50 @@
+package com.project.coding_exercise.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Maps a SHA-256 content hash to its {@link ParsedSchema}, so identical bytes are parsed and
+ * resolved at most once while they stay in the cache. Entries are weighed by their source
+ * size (a resolved model is several times larger than its text) and evicted against
+ * {@code schema.parse-cache.max-bytes}.
+ */
+@Component
+public class OpenApiParseCache {
+
+    private static final int MODEL_SIZE_FACTOR = 4;
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    private final Cache<String, ParsedSchema> results;
+
+    public OpenApiParseCache(@Value("${schema.parse-cache.max-bytes:67108864}") long maxBytes) {
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String hash, ParsedSchema parsed) -> weigh(parsed))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    public ParsedSchema get(String contentHash, Function<String, ParsedSchema> parser) {
+        return results.get(contentHash, parser);
+    }
+
+    public ParsedSchema getIfPresent(String contentHash) {
+        return results.getIfPresent(contentHash);
+    }
+
+    public CacheStats stats() {
+        return results.stats();
+    }
+
+    private static int weigh(ParsedSchema parsed) {
+        long modelBytes = parsed.getOpenAPI() != null ? parsed.getSourceBytes() * MODEL_SIZE_FACTOR : 0;
+        return (int) Math.min(Integer.MAX_VALUE, modelBytes + ENTRY_OVERHEAD_BYTES);
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.coding_exercise.cache;
+
+import io.swagger.v3.oas.models.OpenAPI;
+
+import java.util.List;
+
+/**
+ * Outcome of parsing one schema document: the validation verdict, the parser messages and,
+ * for valid documents, the resolved model. The model is shared between callers through
+ * {@link OpenApiParseCache} and must be treated as read-only.
+ */
+public class ParsedSchema {
+    private final boolean valid;
+    private final List<String> messages;
+    private final OpenAPI openAPI;
+    private final long sourceBytes;
+
+    public ParsedSchema(boolean valid, List<String> messages, OpenAPI openAPI, long sourceBytes) {
+        this.valid = valid;
+        this.messages = messages != null ? List.copyOf(messages) : List.of();
+        this.openAPI = openAPI;
+        this.sourceBytes = sourceBytes;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    public OpenAPI getOpenAPI() {
+        return openAPI;
+    }
+
+    public long getSourceBytes() {
+        return sourceBytes;
+    }
+}
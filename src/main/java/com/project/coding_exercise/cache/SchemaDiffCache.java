@@ -0,0 +1,43 @@
+package com.project.coding_exercise.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.coding_exercise.db.dto.SchemaDiff;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Memoizes structural diffs by the pair of schema ids they compare. Stored versions are
+ * immutable, so an entry never goes stale and is only dropped by the size bound
+ * ({@code schema.diff-cache.max-entries}). Cached diffs are shared and must not be modified.
+ */
+@Component
+public class SchemaDiffCache {
+
+    private final Cache<DiffKey, SchemaDiff> diffs;
+
+    public SchemaDiffCache(@Value("${schema.diff-cache.max-entries:1000}") long maxEntries) {
+        this.diffs = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    public SchemaDiff get(Long fromSchemaId, Long toSchemaId, Supplier<SchemaDiff> compute) {
+        return diffs.get(new DiffKey(fromSchemaId, toSchemaId), key -> compute.get());
+    }
+
+    public SchemaDiff getIfPresent(Long fromSchemaId, Long toSchemaId) {
+        return diffs.getIfPresent(new DiffKey(fromSchemaId, toSchemaId));
+    }
+
+    public CacheStats stats() {
+        return diffs.stats();
+    }
+
+    private record DiffKey(Long fromSchemaId, Long toSchemaId) {}
+}
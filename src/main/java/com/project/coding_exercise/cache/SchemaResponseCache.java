@@ -0,0 +1,122 @@
+package com.project.coding_exercise.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.coding_exercise.db.dto.SchemaCacheStats;
+import com.project.coding_exercise.db.dto.SchemaResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, size-aware cache of {@link SchemaResponse} reads.
+ * <p>
+ * Versioned entries never change once uploaded, so they stay cached until evicted by the
+ * byte budget. "Latest" is kept as a pointer from application/service to a version and is
+ * dropped by {@link #invalidateLatest(String, String)} whenever a new version is committed.
+ * A reader that loaded "latest" from the database only publishes the pointer if no
+ * invalidation happened in the meantime (see {@link #latestStamp()}), so a slow read can
+ * never re-install a stale latest version after an upload.
+ */
+@Component
+public class SchemaResponseCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Cache<VersionKey, SchemaResponse> versions;
+    private final ConcurrentMap<LatestKey, Integer> latestVersions = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final long maxBytes;
+
+    public SchemaResponseCache(@Value("${schema.cache.max-bytes:67108864}") long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.versions = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((VersionKey key, SchemaResponse response) -> weigh(response))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    public SchemaResponse getLatest(String applicationName, String serviceName) {
+        Integer version = latestVersions.get(new LatestKey(applicationName, normalize(serviceName)));
+        SchemaResponse response = version != null ? versions.getIfPresent(new VersionKey(applicationName, normalize(serviceName), version)) : null;
+        record(response);
+        return response;
+    }
+
+    public SchemaResponse getVersion(String applicationName, String serviceName, Integer version) {
+        SchemaResponse response = versions.getIfPresent(new VersionKey(applicationName, normalize(serviceName), version));
+        record(response);
+        return response;
+    }
+
+    /**
+     * Caches a response loaded for "latest". {@code stamp} must be taken with
+     * {@link #latestStamp()} before the database was read.
+     */
+    public void putLatest(String applicationName, String serviceName, SchemaResponse response, long stamp) {
+        putVersion(applicationName, serviceName, response);
+        LatestKey key = new LatestKey(applicationName, normalize(serviceName));
+        latestVersions.put(key, response.getVersion());
+        if (invalidations.get() != stamp) {
+            latestVersions.remove(key, response.getVersion());
+        }
+    }
+
+    public void putVersion(String applicationName, String serviceName, SchemaResponse response) {
+        versions.put(new VersionKey(applicationName, normalize(serviceName), response.getVersion()), response);
+    }
+
+    /**
+     * Drops the latest pointer of the service and of the application itself, since the
+     * application-level "latest" read considers schemas of every service.
+     */
+    public void invalidateLatest(String applicationName, String serviceName) {
+        invalidations.incrementAndGet();
+        latestVersions.remove(new LatestKey(applicationName, normalize(serviceName)));
+        latestVersions.remove(new LatestKey(applicationName, null));
+    }
+
+    public long latestStamp() {
+        return invalidations.get();
+    }
+
+    public SchemaCacheStats stats() {
+        SchemaCacheStats stats = new SchemaCacheStats();
+        stats.setHits(hits.sum());
+        stats.setMisses(misses.sum());
+        stats.setEvictions(versions.stats().evictionCount());
+        stats.setEntries(versions.estimatedSize());
+        stats.setWeightBytes(versions.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L));
+        stats.setMaxBytes(maxBytes);
+        return stats;
+    }
+
+    private void record(SchemaResponse response) {
+        if (response != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+    }
+
+    private static int weigh(SchemaResponse response) {
+        long chars = response.getContent() != null ? response.getContent().length() : 0;
+        return (int) Math.min(Integer.MAX_VALUE, chars * 2 + ENTRY_OVERHEAD_BYTES);
+    }
+
+    private static String normalize(String serviceName) {
+        return serviceName != null && !serviceName.trim().isEmpty() ? serviceName : null;
+    }
+
+    private record LatestKey(String applicationName, String serviceName) {}
+
+    private record VersionKey(String applicationName, String serviceName, Integer version) {}
+}
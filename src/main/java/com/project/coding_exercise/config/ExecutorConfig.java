@@ -0,0 +1,56 @@
+package com.project.coding_exercise.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService schemaValidationExecutor(@Value("${schema.validation.threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(poolSize, namedDaemonThreads("schema-validation-"));
+    }
+
+    /**
+     * Single background thread that precomputes diffs after uploads. Precomputation is only
+     * an optimisation, so when the queue is full new tasks are dropped rather than slowing
+     * the uploading request down.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService schemaDiffExecutor(@Value("${schema.diff.precompute-queue:256}") int queueCapacity) {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                namedDaemonThreads("schema-diff-"), new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Bounded pool for asynchronous uploads. A full queue rejects the task, which the
+     * upload endpoint reports as 503, so a burst of large uploads cannot accumulate threads
+     * or spooled files beyond {@code threads + queue-capacity}.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService schemaUploadExecutor(@Value("${schema.upload.async.threads:2}") int threads,
+                                                @Value("${schema.upload.async.queue-capacity:32}") int queueCapacity) {
+        int poolSize = Math.max(1, threads);
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                namedDaemonThreads("schema-upload-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
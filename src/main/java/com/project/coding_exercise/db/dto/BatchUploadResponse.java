@@ -0,0 +1,45 @@
+package com.project.coding_exercise.db.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchUploadResponse {
+    private String applicationName;
+    private int succeeded;
+    private int failed;
+    private List<BatchUploadResult> results = new ArrayList<>();
+
+    public BatchUploadResponse() {}
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchUploadResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchUploadResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,91 @@
+package com.project.coding_exercise.db.dto;
+
+import java.io.IOException;
+
+/**
+ * A stored schema as sent by the raw endpoints. Everything needed for the validators
+ * (content hash and stored encoding) is resolved up front; the bytes themselves are only
+ * opened by {@link #openBlob()}, so a conditional request that ends in {@code 304} never
+ * reads them.
+ */
+public class RawSchemaContent {
+    private Long id;
+    private Integer version;
+    private String contentHash;
+    private String contentEncoding;
+    private String mediaType;
+    private StoredBlob blob;
+    private BlobOpener blobOpener;
+
+    @FunctionalInterface
+    public interface BlobOpener {
+        StoredBlob open() throws IOException;
+    }
+
+    public RawSchemaContent() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * HTTP content coding the blob is stored in, e.g. {@code gzip}, or {@code null}.
+     */
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public void setContentEncoding(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public void setMediaType(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public StoredBlob getBlob() {
+        return blob;
+    }
+
+    public void setBlob(StoredBlob blob) {
+        this.blob = blob;
+    }
+
+    public void setBlobOpener(BlobOpener blobOpener) {
+        this.blobOpener = blobOpener;
+    }
+
+    /**
+     * The blob, opened now if it was not already.
+     */
+    public StoredBlob openBlob() throws IOException {
+        if (blob == null && blobOpener != null) {
+            blob = blobOpener.open();
+        }
+        return blob;
+    }
+}
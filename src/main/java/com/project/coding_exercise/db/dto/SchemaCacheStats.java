@@ -0,0 +1,60 @@
+package com.project.coding_exercise.db.dto;
+
+public class SchemaCacheStats {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long entries;
+    private long weightBytes;
+    private long maxBytes;
+
+    public SchemaCacheStats() {}
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public void setEntries(long entries) {
+        this.entries = entries;
+    }
+
+    public long getWeightBytes() {
+        return weightBytes;
+    }
+
+    public void setWeightBytes(long weightBytes) {
+        this.weightBytes = weightBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+}
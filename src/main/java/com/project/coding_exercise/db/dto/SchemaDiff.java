@@ -0,0 +1,78 @@
+package com.project.coding_exercise.db.dto;
+
+public class SchemaDiff {
+    private String applicationName;
+    private String serviceName;
+    private Integer fromVersion;
+    private Integer toVersion;
+    private SchemaDiffSection paths = new SchemaDiffSection();
+    private SchemaDiffSection operations = new SchemaDiffSection();
+    private SchemaDiffSection parameters = new SchemaDiffSection();
+    private SchemaDiffSection components = new SchemaDiffSection();
+
+    public SchemaDiff() {}
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public Integer getFromVersion() {
+        return fromVersion;
+    }
+
+    public void setFromVersion(Integer fromVersion) {
+        this.fromVersion = fromVersion;
+    }
+
+    public Integer getToVersion() {
+        return toVersion;
+    }
+
+    public void setToVersion(Integer toVersion) {
+        this.toVersion = toVersion;
+    }
+
+    public SchemaDiffSection getPaths() {
+        return paths;
+    }
+
+    public void setPaths(SchemaDiffSection paths) {
+        this.paths = paths;
+    }
+
+    public SchemaDiffSection getOperations() {
+        return operations;
+    }
+
+    public void setOperations(SchemaDiffSection operations) {
+        this.operations = operations;
+    }
+
+    public SchemaDiffSection getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(SchemaDiffSection parameters) {
+        this.parameters = parameters;
+    }
+
+    public SchemaDiffSection getComponents() {
+        return components;
+    }
+
+    public void setComponents(SchemaDiffSection components) {
+        this.components = components;
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.coding_exercise.db.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SchemaDiffSection {
+    private List<String> added = new ArrayList<>();
+    private List<String> removed = new ArrayList<>();
+    private List<String> changed = new ArrayList<>();
+
+    public SchemaDiffSection() {}
+
+    public List<String> getAdded() {
+        return added;
+    }
+
+    public void setAdded(List<String> added) {
+        this.added = added;
+    }
+
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<String> removed) {
+        this.removed = removed;
+    }
+
+    public List<String> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<String> changed) {
+        this.changed = changed;
+    }
+}
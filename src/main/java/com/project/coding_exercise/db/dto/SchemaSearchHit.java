@@ -0,0 +1,39 @@
+package com.project.coding_exercise.db.dto;
+
+public class SchemaSearchHit {
+    private String applicationName;
+    private String serviceName;
+    private Integer version;
+
+    public SchemaSearchHit() {}
+
+    public SchemaSearchHit(String applicationName, String serviceName, Integer version) {
+        this.applicationName = applicationName;
+        this.serviceName = serviceName;
+        this.version = version;
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.coding_exercise.db.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an asynchronous upload. Updated by the upload worker while clients poll it, so
+ * every field is volatile and the result is published before the terminal status.
+ */
+public class SchemaUploadJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private volatile String jobId;
+    private volatile String applicationName;
+    private volatile String serviceName;
+    private volatile Status status;
+    private volatile LocalDateTime submittedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile SchemaResponse result;
+    private volatile String error;
+
+    public SchemaUploadJob() {}
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public SchemaResponse getResult() {
+        return result;
+    }
+
+    public void setResult(SchemaResponse result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
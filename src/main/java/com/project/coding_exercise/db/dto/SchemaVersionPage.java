@@ -0,0 +1,54 @@
+package com.project.coding_exercise.db.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SchemaVersionPage {
+    private String applicationName;
+    private String serviceName;
+    private int limit;
+    private Integer nextCursor;
+    private List<SchemaResponse> versions = new ArrayList<>();
+
+    public SchemaVersionPage() {}
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public List<SchemaResponse> getVersions() {
+        return versions;
+    }
+
+    public void setVersions(List<SchemaResponse> versions) {
+        this.versions = versions;
+    }
+}
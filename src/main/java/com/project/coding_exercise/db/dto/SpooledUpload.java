@@ -0,0 +1,27 @@
+package com.project.coding_exercise.db.dto;
+
+import java.nio.file.Path;
+
+public class SpooledUpload {
+    private final Path tempFile;
+    private final String contentHash;
+    private final long size;
+
+    public SpooledUpload(Path tempFile, String contentHash, long size) {
+        this.tempFile = tempFile;
+        this.contentHash = contentHash;
+        this.size = size;
+    }
+
+    public Path getTempFile() {
+        return tempFile;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,128 @@
+package com.project.coding_exercise.db.dto;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class StoredBlob {
+    private final Path path;
+    private final String contentEncoding;
+    private final long size;
+    private final byte[] content;
+    private final ByteBuffer buffer;
+
+    public StoredBlob(Path path, String contentEncoding, long size) {
+        this.path = path;
+        this.contentEncoding = contentEncoding;
+        this.size = size;
+        this.content = null;
+        this.buffer = null;
+    }
+
+    /**
+     * A blob that has no file of its own, such as a version rebuilt from a delta chain.
+     */
+    public StoredBlob(byte[] content) {
+        this.path = null;
+        this.contentEncoding = null;
+        this.size = content.length;
+        this.content = content;
+        this.buffer = null;
+    }
+
+    /**
+     * A blob inside a storage segment, as a read-only slice of the segment's mapping and
+     * still in its stored content coding.
+     */
+    public StoredBlob(ByteBuffer buffer, String contentEncoding) {
+        this.path = null;
+        this.contentEncoding = contentEncoding;
+        this.size = buffer.remaining();
+        this.content = null;
+        this.buffer = buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * File holding the blob, or {@code null} when it is only available in memory.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * HTTP content coding of the stored bytes, e.g. {@code gzip}, or
+     * {@code null} when the blob is stored uncompressed.
+     */
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * The bytes of a blob held on heap, or {@code null} for a file or segment blob.
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * The mapped bytes of a segment blob, or {@code null} for any other blob.
+     */
+    public ByteBuffer getBuffer() {
+        return buffer != null ? buffer.duplicate() : null;
+    }
+
+    /**
+     * The stored bytes, still in {@link #getContentEncoding()}, wherever they are held.
+     */
+    public InputStream openStream() throws IOException {
+        if (path != null) {
+            return Files.newInputStream(path);
+        }
+        return content != null ? new ByteArrayInputStream(content) : new BufferInputStream(buffer.duplicate());
+    }
+
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+    }
+}
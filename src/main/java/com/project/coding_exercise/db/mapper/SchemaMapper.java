@@ -1,6 +1,7 @@
 package com.project.coding_exercise.db.mapper;
 
 import com.project.coding_exercise.db.model.Schema;
+import com.project.coding_exercise.db.model.SchemaDetails;
 import org.apache.ibatis.annotations.*;
 
 import java.util.List;
@@ -12,14 +13,29 @@ public interface SchemaMapper {
     @Options(useGeneratedKeys = true, keyProperty = "id")
     void insert(Schema schema);
 
+    @Select("SELECT DISTINCT file_path FROM schemas")
+    List<String> findAllFilePaths();
+
+    /**
+     * Latest schema of a service, or of the whole application (any service) when
+     * {@code serviceId} is {@code null}. Each case has its own statement so that neither
+     * carries an {@code IS NULL OR} predicate that would stop H2 from seeking the index.
+     * The ORDER BY clauses repeat the equality columns because H2 only reads an index in
+     * order when the sort keys match its leading columns.
+     */
+    default Schema findLatestByApplicationAndService(Long applicationId, Long serviceId) {
+        return serviceId == null
+                ? findLatestByApplication(applicationId)
+                : findLatestByApplicationIdAndServiceId(applicationId, serviceId);
+    }
+
     @Select("""
-    SELECT * FROM schemas
+    SELECT * FROM schemas USE INDEX (idx_schemas_app_version)
     WHERE application_id = #{applicationId}
-      AND (#{serviceId} IS NULL OR service_id = #{serviceId})
-    ORDER BY version DESC
+    ORDER BY application_id, version DESC
     LIMIT 1
 """)
-    @Results({
+    @Results(id = "schema", value = {
             @Result(property = "id", column = "id"),
             @Result(property = "applicationId", column = "application_id"),
             @Result(property = "serviceId", column = "service_id"),
@@ -27,41 +43,245 @@ public interface SchemaMapper {
             @Result(property = "filePath", column = "file_path"),
             @Result(property = "uploadedAt", column = "uploaded_at")
     })
-    Schema findLatestByApplicationAndService(@Param("applicationId") Long applicationId,
-                                             @Param("serviceId") Long serviceId);
+    Schema findLatestByApplication(@Param("applicationId") Long applicationId);
+
+    @Select("""
+    SELECT * FROM schemas
+    WHERE application_id = #{applicationId}
+      AND service_id = #{serviceId}
+    ORDER BY application_id, service_id, version DESC
+    LIMIT 1
+""")
+    @ResultMap("schema")
+    Schema findLatestByApplicationIdAndServiceId(@Param("applicationId") Long applicationId,
+                                                 @Param("serviceId") Long serviceId);
+
+    default Schema findByApplicationServiceAndVersion(Long applicationId, Long serviceId, Integer version) {
+        return serviceId == null
+                ? findByApplicationAndVersion(applicationId, version)
+                : findByApplicationIdServiceIdAndVersion(applicationId, serviceId, version);
+    }
 
     @Select("""
     SELECT * FROM schemas
     WHERE application_id = #{applicationId}
       AND version = #{version}
-      AND (#{serviceId} IS NULL OR service_id = #{serviceId})
+    LIMIT 1
 """)
-    @Results({
+    @ResultMap("schema")
+    Schema findByApplicationAndVersion(@Param("applicationId") Long applicationId,
+                                       @Param("version") Integer version);
+
+    @Select("""
+    SELECT * FROM schemas
+    WHERE application_id = #{applicationId}
+      AND service_id = #{serviceId}
+      AND version = #{version}
+""")
+    @ResultMap("schema")
+    Schema findByApplicationIdServiceIdAndVersion(@Param("applicationId") Long applicationId,
+                                                  @Param("serviceId") Long serviceId,
+                                                  @Param("version") Integer version);
+
+    /**
+     * Highest version of a service, or of the schemas uploaded without a service when
+     * {@code serviceId} is {@code null}; 0 when there is none.
+     */
+    default Integer findMaxVersionByApplicationAndService(Long applicationId, Long serviceId) {
+        return serviceId == null
+                ? findMaxVersionByApplicationWithoutService(applicationId)
+                : findMaxVersionByApplicationIdAndServiceId(applicationId, serviceId);
+    }
+
+    @Select("""
+    SELECT COALESCE((
+        SELECT version FROM schemas
+        WHERE application_id = #{applicationId}
+          AND service_id IS NULL
+        ORDER BY application_id, service_id, version DESC
+        LIMIT 1), 0)
+""")
+    Integer findMaxVersionByApplicationWithoutService(@Param("applicationId") Long applicationId);
+
+    @Select("""
+    SELECT COALESCE((
+        SELECT version FROM schemas
+        WHERE application_id = #{applicationId}
+          AND service_id = #{serviceId}
+        ORDER BY application_id, service_id, version DESC
+        LIMIT 1), 0)
+""")
+    Integer findMaxVersionByApplicationIdAndServiceId(@Param("applicationId") Long applicationId,
+                                                      @Param("serviceId") Long serviceId);
+
+    default List<Schema> findAllByApplicationAndService(Long applicationId, Long serviceId) {
+        return serviceId == null
+                ? findAllByApplicationWithoutService(applicationId)
+                : findAllByApplicationIdAndServiceId(applicationId, serviceId);
+    }
+
+    @Select("SELECT * FROM schemas WHERE application_id = #{applicationId} AND service_id IS NULL ORDER BY application_id, service_id, version DESC")
+    @ResultMap("schema")
+    List<Schema> findAllByApplicationWithoutService(@Param("applicationId") Long applicationId);
+
+    @Select("SELECT * FROM schemas WHERE application_id = #{applicationId} AND service_id = #{serviceId} ORDER BY application_id, service_id, version DESC")
+    @ResultMap("schema")
+    List<Schema> findAllByApplicationIdAndServiceId(@Param("applicationId") Long applicationId,
+                                                    @Param("serviceId") Long serviceId);
+
+    /**
+     * One page of version history, newest first, holding versions below {@code beforeVersion}.
+     * Paging on the version key keeps every page a short range read of the
+     * (application_id, service_id, version) index, however deep the client pages.
+     * A {@code null} {@code serviceId} pages the application-level schemas.
+     */
+    default List<Schema> findVersionPage(Long applicationId, Long serviceId, Integer beforeVersion, int limit) {
+        return serviceId == null
+                ? findVersionPageWithoutService(applicationId, beforeVersion, limit)
+                : findVersionPageByApplicationIdAndServiceId(applicationId, serviceId, beforeVersion, limit);
+    }
+
+    @Select("""
+    SELECT * FROM schemas
+    WHERE application_id = #{applicationId}
+      AND service_id IS NULL
+      AND version < #{beforeVersion}
+    ORDER BY application_id, service_id, version DESC
+    LIMIT #{limit}
+""")
+    @ResultMap("schema")
+    List<Schema> findVersionPageWithoutService(@Param("applicationId") Long applicationId,
+                                               @Param("beforeVersion") Integer beforeVersion,
+                                               @Param("limit") int limit);
+
+    @Select("""
+    SELECT * FROM schemas
+    WHERE application_id = #{applicationId}
+      AND service_id = #{serviceId}
+      AND version < #{beforeVersion}
+    ORDER BY application_id, service_id, version DESC
+    LIMIT #{limit}
+""")
+    @ResultMap("schema")
+    List<Schema> findVersionPageByApplicationIdAndServiceId(@Param("applicationId") Long applicationId,
+                                                            @Param("serviceId") Long serviceId,
+                                                            @Param("beforeVersion") Integer beforeVersion,
+                                                            @Param("limit") int limit);
+
+    @Select("""
+    SELECT a.id AS application_id, a.name AS application_name, s.id AS matched_service_id, s.name AS service_name,
+           sc.id, sc.service_id, sc.version, sc.file_path, sc.uploaded_at
+    FROM applications a
+    LEFT JOIN services s ON s.application_id = a.id AND s.name = #{serviceName}
+    LEFT JOIN schemas sc ON sc.id = (
+        SELECT id FROM schemas
+        WHERE application_id = a.id AND service_id = s.id
+        ORDER BY application_id, service_id, version DESC
+        LIMIT 1)
+    WHERE a.name = #{applicationName}
+""")
+    @Results(id = "schemaDetails", value = {
             @Result(property = "id", column = "id"),
             @Result(property = "applicationId", column = "application_id"),
+            @Result(property = "applicationName", column = "application_name"),
+            @Result(property = "matchedServiceId", column = "matched_service_id"),
             @Result(property = "serviceId", column = "service_id"),
+            @Result(property = "serviceName", column = "service_name"),
             @Result(property = "version", column = "version"),
             @Result(property = "filePath", column = "file_path"),
             @Result(property = "uploadedAt", column = "uploaded_at")
     })
-    Schema findByApplicationServiceAndVersion(@Param("applicationId") Long applicationId,
-                                              @Param("serviceId") Long serviceId,
-                                              @Param("version") Integer version);
+    SchemaDetails findLatestByApplicationNameAndServiceName(@Param("applicationName") String applicationName,
+                                                           @Param("serviceName") String serviceName);
 
-    @Select("SELECT COALESCE(MAX(version), 0) FROM schemas WHERE application_id = #{applicationId} AND " +
-            "((#{serviceId} IS NULL AND service_id IS NULL) OR (#{serviceId} IS NOT NULL AND service_id = #{serviceId}))")
-    Integer findMaxVersionByApplicationAndService(@Param("applicationId") Long applicationId, @Param("serviceId") Long serviceId);
-    
-    @Select("SELECT * FROM schemas WHERE application_id = #{applicationId} AND " +
-            "((#{serviceId} IS NULL AND service_id IS NULL) OR (#{serviceId} IS NOT NULL AND service_id = #{serviceId})) " +
-            "ORDER BY version DESC")
-    @Results({
-        @Result(property = "id", column = "id"),
-        @Result(property = "applicationId", column = "application_id"),
-        @Result(property = "serviceId", column = "service_id"),
-        @Result(property = "version", column = "version"),
-        @Result(property = "filePath", column = "file_path"),
-        @Result(property = "uploadedAt", column = "uploaded_at")
-    })
-    List<Schema> findAllByApplicationAndService(@Param("applicationId") Long applicationId, @Param("serviceId") Long serviceId);
+    @Select("""
+    SELECT a.id AS application_id, a.name AS application_name,
+           sc.id, sc.service_id, sc.version, sc.file_path, sc.uploaded_at
+    FROM applications a
+    LEFT JOIN schemas sc ON sc.id = (
+        SELECT id FROM schemas
+        WHERE application_id = a.id
+        ORDER BY application_id, version DESC
+        LIMIT 1)
+    WHERE a.name = #{applicationName}
+""")
+    @ResultMap("schemaDetails")
+    SchemaDetails findLatestByApplicationName(@Param("applicationName") String applicationName);
+
+    @Select("""
+    SELECT a.id AS application_id, a.name AS application_name, s.id AS matched_service_id, s.name AS service_name,
+           sc.id, sc.service_id, sc.version, sc.file_path, sc.uploaded_at
+    FROM applications a
+    LEFT JOIN services s ON s.application_id = a.id AND s.name = #{serviceName}
+    LEFT JOIN schemas sc ON sc.application_id = a.id AND sc.service_id = s.id AND sc.version = #{version}
+    WHERE a.name = #{applicationName}
+""")
+    @ResultMap("schemaDetails")
+    SchemaDetails findByApplicationNameServiceNameAndVersion(@Param("applicationName") String applicationName,
+                                                            @Param("serviceName") String serviceName,
+                                                            @Param("version") Integer version);
+
+    @Select("""
+    SELECT a.id AS application_id, a.name AS application_name,
+           sc.id, sc.service_id, sc.version, sc.file_path, sc.uploaded_at
+    FROM applications a
+    LEFT JOIN schemas sc ON sc.id = (
+        SELECT id FROM schemas
+        WHERE application_id = a.id AND version = #{version}
+        LIMIT 1)
+    WHERE a.name = #{applicationName}
+""")
+    @ResultMap("schemaDetails")
+    SchemaDetails findByApplicationNameAndVersion(@Param("applicationName") String applicationName,
+                                                  @Param("version") Integer version);
+
+    /**
+     * Latest version of every service of an application, with its service name; the delta
+     * bases of a batch upload in one query.
+     */
+    @Select("""
+    SELECT a.id AS application_id, a.name AS application_name, s.id AS matched_service_id, s.name AS service_name,
+           sc.id, sc.service_id, sc.version, sc.file_path, sc.uploaded_at
+    FROM applications a
+    JOIN services s ON s.application_id = a.id
+    JOIN schemas sc ON sc.id = (
+        SELECT id FROM schemas
+        WHERE application_id = a.id AND service_id = s.id
+        ORDER BY application_id, service_id, version DESC
+        LIMIT 1)
+    WHERE a.name = #{applicationName}
+""")
+    @ResultMap("schemaDetails")
+    List<SchemaDetails> findLatestOfEachServiceByApplicationName(@Param("applicationName") String applicationName);
+
+    /**
+     * Latest version of every service, and of every application's service-less schemas,
+     * with their names. Used to rebuild the search index at startup.
+     */
+    @Select("""
+    SELECT sc.id, sc.application_id, a.name AS application_name, sc.service_id,
+           sc.service_id AS matched_service_id, s.name AS service_name,
+           sc.version, sc.file_path, sc.uploaded_at
+    FROM schemas sc
+    JOIN applications a ON a.id = sc.application_id
+    JOIN services s ON s.id = sc.service_id
+    WHERE NOT EXISTS (
+        SELECT 1 FROM schemas newer
+        WHERE newer.application_id = sc.application_id
+          AND newer.service_id = sc.service_id
+          AND newer.version > sc.version)
+    UNION ALL
+    SELECT sc.id, sc.application_id, a.name AS application_name, NULL, NULL, NULL,
+           sc.version, sc.file_path, sc.uploaded_at
+    FROM schemas sc
+    JOIN applications a ON a.id = sc.application_id
+    WHERE sc.service_id IS NULL
+      AND NOT EXISTS (
+        SELECT 1 FROM schemas newer
+        WHERE newer.application_id = sc.application_id
+          AND newer.service_id IS NULL
+          AND newer.version > sc.version)
+""")
+    @ResultMap("schemaDetails")
+    List<SchemaDetails> findAllLatest();
 }
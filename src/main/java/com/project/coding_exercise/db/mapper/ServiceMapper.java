@@ -3,6 +3,8 @@ package com.project.coding_exercise.db.mapper;
 import com.project.coding_exercise.db.model.Service;
 import org.apache.ibatis.annotations.*;
 
+import java.util.List;
+
 @Mapper
 public interface ServiceMapper {
     
@@ -18,6 +20,15 @@ public interface ServiceMapper {
         @Result(property = "createdAt", column = "created_at")
     })
     Service findByApplicationIdAndName(@Param("applicationId") Long applicationId, @Param("name") String name);
+
+    @Select("SELECT * FROM services WHERE application_id = #{applicationId}")
+    @Results({
+        @Result(property = "id", column = "id"),
+        @Result(property = "applicationId", column = "application_id"),
+        @Result(property = "name", column = "name"),
+        @Result(property = "createdAt", column = "created_at")
+    })
+    List<Service> findByApplicationId(@Param("applicationId") Long applicationId);
     
     @Select("SELECT * FROM services WHERE id = #{id}")
     @Results({
@@ -0,0 +1,39 @@
+package com.project.coding_exercise.db.model;
+
+/**
+ * A schema row joined with the application and service it was resolved through. The joins
+ * are outer joins, so a row is returned as long as the application exists:
+ * {@code matchedServiceId} is {@code null} when the requested service does not exist and
+ * {@code id} is {@code null} when no matching schema exists.
+ */
+public class SchemaDetails extends Schema {
+    private String applicationName;
+    private Long matchedServiceId;
+    private String serviceName;
+
+    public SchemaDetails() {}
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    public Long getMatchedServiceId() {
+        return matchedServiceId;
+    }
+
+    public void setMatchedServiceId(Long matchedServiceId) {
+        this.matchedServiceId = matchedServiceId;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+}
@@ -0,0 +1,14 @@
+package com.project.coding_exercise.service;
+
+/**
+ * A schema fragment was requested with a string that is not a valid JSON Pointer. Unlike a
+ * pointer that addresses nothing, this is a malformed request.
+ */
+public class InvalidSchemaPointerException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidSchemaPointerException(String message) {
+        super(message);
+    }
+}
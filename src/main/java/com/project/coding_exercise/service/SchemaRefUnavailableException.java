@@ -0,0 +1,18 @@
+package com.project.coding_exercise.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A document referenced through a remote {@code $ref} could not be fetched. This says nothing
+ * about the uploaded schema itself, so it is reported as a temporary failure the client may
+ * retry rather than as an invalid specification, and no verdict is cached for the content.
+ */
+public class SchemaRefUnavailableException extends UncheckedIOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SchemaRefUnavailableException(String url, IOException cause) {
+        super("Referenced document " + url + " could not be fetched: " + cause.getMessage(), cause);
+    }
+}
@@ -1,12 +1,39 @@
 package com.project.coding_exercise.service;
 
+import com.project.coding_exercise.db.dto.BatchUploadResponse;
+import com.project.coding_exercise.db.dto.RawSchemaContent;
+import com.project.coding_exercise.db.dto.SchemaCacheStats;
+import com.project.coding_exercise.db.dto.SchemaDiff;
 import com.project.coding_exercise.db.dto.SchemaResponse;
+import com.project.coding_exercise.db.dto.SchemaSearchHit;
+import com.project.coding_exercise.db.dto.SchemaUploadJob;
 import com.project.coding_exercise.db.dto.SchemaUploadRequest;
+import com.project.coding_exercise.db.dto.SchemaVersionPage;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 public interface SchemaService {
     SchemaResponse uploadSchema(SchemaUploadRequest request) throws Exception;
+    SchemaUploadJob submitUpload(SchemaUploadRequest request) throws Exception;
+    SchemaUploadJob getUploadJob(String jobId);
+    BatchUploadResponse uploadSchemas(String applicationName, List<MultipartFile> files, MultipartFile archive) throws Exception;
     SchemaResponse getLatestSchema(String applicationName, String serviceName) throws Exception;
     SchemaResponse getSchemaByVersion(String applicationName, String serviceName, Integer version) throws Exception;
+    SchemaResponse getLatestSchemaMetadata(String applicationName, String serviceName) throws Exception;
+    SchemaResponse getSchemaMetadataByVersion(String applicationName, String serviceName, Integer version) throws Exception;
+    RawSchemaContent getLatestRawSchema(String applicationName, String serviceName) throws Exception;
+    RawSchemaContent getRawSchemaByVersion(String applicationName, String serviceName, Integer version) throws Exception;
+    RawSchemaContent getLatestRawSchemaRendition(String applicationName, String serviceName, String mediaType) throws Exception;
+    RawSchemaContent getRawSchemaRenditionByVersion(String applicationName, String serviceName, Integer version, String mediaType) throws Exception;
+    RawSchemaContent getLatestRawSchemaFragment(String applicationName, String serviceName, String pointer, String mediaType) throws Exception;
+    RawSchemaContent getRawSchemaFragmentByVersion(String applicationName, String serviceName, Integer version, String pointer, String mediaType) throws Exception;
+    SchemaResponse renderSchema(SchemaResponse response, String mediaType) throws Exception;
+    SchemaVersionPage getVersionHistory(String applicationName, String serviceName, Integer cursor, Integer limit) throws Exception;
+    SchemaDiff getSchemaDiff(String applicationName, String serviceName, Integer fromVersion, Integer toVersion) throws Exception;
+    List<SchemaSearchHit> searchSchemas(String path, String method, String operationId, String tag, String component);
+    int rebuildSearchIndex() throws Exception;
+    int warmLatestSchemas() throws Exception;
+    SchemaCacheStats getCacheStats();
     boolean validateOpenApiSpec(MultipartFile file) throws Exception;
 }
@@ -0,0 +1,25 @@
+package com.project.coding_exercise.service;
+
+import com.project.coding_exercise.db.dto.SpooledUpload;
+import com.project.coding_exercise.db.dto.StoredBlob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+public interface SchemaStorageService {
+    SpooledUpload spool(InputStream content) throws IOException;
+    String commit(SpooledUpload upload, String baseFilePath) throws IOException;
+
+    default String commit(SpooledUpload upload) throws IOException {
+        return commit(upload, null);
+    }
+
+    void discard(SpooledUpload upload);
+    String readContent(String filePath) throws IOException;
+    InputStream openContent(String filePath) throws IOException;
+    StoredBlob openBlob(String filePath) throws IOException;
+    String storedEncoding(String filePath) throws IOException;
+    long compactSegments(Supplier<? extends Collection<String>> referencedFilePaths) throws IOException;
+}
@@ -0,0 +1,119 @@
+package com.project.coding_exercise.serviceImpl;
+
+import com.project.coding_exercise.db.dto.SchemaDiff;
+import com.project.coding_exercise.db.dto.SchemaDiffSection;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.parameters.Parameter;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Structural comparison of two parsed OpenAPI documents. Paths, operations
+ * ({@code "GET /users"}), parameters ({@code "GET /users query:limit"}) and components
+ * ({@code "schemas/User"}) are matched by key and reported as added, removed or changed,
+ * where "changed" means the model objects are not equal. Entries are sorted so the same
+ * pair of documents always yields the same diff.
+ */
+public final class OpenApiDiff {
+
+    private OpenApiDiff() {}
+
+    public static SchemaDiff compare(OpenAPI from, OpenAPI to) {
+        SchemaDiff diff = new SchemaDiff();
+        Map<String, PathItem> fromPaths = from.getPaths() != null ? from.getPaths() : Map.of();
+        Map<String, PathItem> toPaths = to.getPaths() != null ? to.getPaths() : Map.of();
+        compareEntries(fromPaths, toPaths, diff.getPaths());
+
+        Map<String, Operation> fromOperations = operations(fromPaths);
+        Map<String, Operation> toOperations = operations(toPaths);
+        compareEntries(fromOperations, toOperations, diff.getOperations());
+
+        for (String operation : new TreeSet<>(fromOperations.keySet())) {
+            if (toOperations.containsKey(operation)) {
+                compareEntries(parameters(operation, fromPaths, fromOperations.get(operation)),
+                        parameters(operation, toPaths, toOperations.get(operation)), diff.getParameters());
+            }
+        }
+
+        compareEntries(components(from.getComponents()), components(to.getComponents()), diff.getComponents());
+        return diff;
+    }
+
+    private static <T> void compareEntries(Map<String, T> from, Map<String, T> to, SchemaDiffSection section) {
+        TreeSet<String> keys = new TreeSet<>(from.keySet());
+        keys.addAll(to.keySet());
+        for (String key : keys) {
+            if (!from.containsKey(key)) {
+                section.getAdded().add(key);
+            } else if (!to.containsKey(key)) {
+                section.getRemoved().add(key);
+            } else if (!Objects.equals(from.get(key), to.get(key))) {
+                section.getChanged().add(key);
+            }
+        }
+    }
+
+    private static Map<String, Operation> operations(Map<String, PathItem> paths) {
+        Map<String, Operation> operations = new TreeMap<>();
+        paths.forEach((path, item) -> item.readOperationsMap()
+                .forEach((method, operation) -> operations.put(method + " " + path, operation)));
+        return operations;
+    }
+
+    /**
+     * Effective parameters of an operation: path-level parameters overridden by the
+     * operation's own, keyed by location and name (or by reference when unresolved).
+     */
+    private static Map<String, Parameter> parameters(String operation, Map<String, PathItem> paths, Operation model) {
+        Map<String, Parameter> parameters = new LinkedHashMap<>();
+        PathItem item = paths.get(operation.substring(operation.indexOf(' ') + 1));
+        for (List<Parameter> declared : Arrays.asList(item.getParameters(), model.getParameters())) {
+            if (declared != null) {
+                for (Parameter parameter : declared) {
+                    parameters.put(operation + " " + parameterKey(parameter), parameter);
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private static String parameterKey(Parameter parameter) {
+        if (parameter.getName() == null && parameter.get$ref() != null) {
+            return parameter.get$ref();
+        }
+        return parameter.getIn() + ":" + parameter.getName();
+    }
+
+    private static Map<String, Object> components(Components components) {
+        Map<String, Object> entries = new TreeMap<>();
+        if (components == null) {
+            return entries;
+        }
+        addComponents(entries, "schemas", components.getSchemas());
+        addComponents(entries, "responses", components.getResponses());
+        addComponents(entries, "parameters", components.getParameters());
+        addComponents(entries, "examples", components.getExamples());
+        addComponents(entries, "requestBodies", components.getRequestBodies());
+        addComponents(entries, "headers", components.getHeaders());
+        addComponents(entries, "securitySchemes", components.getSecuritySchemes());
+        addComponents(entries, "links", components.getLinks());
+        addComponents(entries, "callbacks", components.getCallbacks());
+        addComponents(entries, "pathItems", components.getPathItems());
+        return entries;
+    }
+
+    private static void addComponents(Map<String, Object> entries, String type, Map<String, ?> components) {
+        if (components != null) {
+            components.forEach((name, component) -> entries.put(type + "/" + name, component));
+        }
+    }
+}
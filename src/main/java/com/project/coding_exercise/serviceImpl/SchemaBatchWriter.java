@@ -0,0 +1,138 @@
+package com.project.coding_exercise.serviceImpl;
+
+import com.project.coding_exercise.db.dto.BatchUploadResult;
+import com.project.coding_exercise.db.mapper.ApplicationMapper;
+import com.project.coding_exercise.db.mapper.SchemaMapper;
+import com.project.coding_exercise.db.mapper.ServiceMapper;
+import com.project.coding_exercise.db.model.Application;
+import com.project.coding_exercise.db.model.Schema;
+import com.project.coding_exercise.db.model.Service;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the metadata of a batch upload in one transaction through a MyBatis
+ * {@link ExecutorType#BATCH} session, so the schema rows of a whole release go to the
+ * database as a single JDBC batch instead of one round-trip per file.
+ */
+@Component
+public class SchemaBatchWriter {
+
+    private final SqlSessionTemplate batchSession;
+
+    public SchemaBatchWriter(SqlSessionFactory sqlSessionFactory) {
+        this.batchSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+    }
+
+    /**
+     * Registers one schema row per accepted result, creating the application and services
+     * as needed, and fills in the id and version of each result. Results for the same
+     * service get consecutive versions in list order. The application and all its services
+     * are read with one query each and missing services are inserted as one batch, falling
+     * back to the rows of services a concurrent upload created in the meantime; if anything
+     * fails, none of them are kept. Callers hold the version locks of every
+     * service involved until this method returns, i.e. until the transaction has committed.
+     *
+     * @return the registered rows, in the order of {@code accepted}
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<Schema> register(String applicationName, List<BatchUploadResult> accepted) {
+        ApplicationMapper applicationMapper = batchSession.getMapper(ApplicationMapper.class);
+        ServiceMapper serviceMapper = batchSession.getMapper(ServiceMapper.class);
+        SchemaMapper schemaMapper = batchSession.getMapper(SchemaMapper.class);
+
+        Application application = applicationMapper.findByName(applicationName);
+        if (application == null) {
+            application = new Application(applicationName);
+            try {
+                applicationMapper.insert(application);
+                batchSession.flushStatements();
+            } catch (DuplicateKeyException e) {
+                // created by a concurrent upload of another service since the lookup
+                application = applicationMapper.findByName(applicationName);
+            }
+        }
+        Long applicationId = application.getId();
+
+        Map<String, Long> serviceIds = new HashMap<>();
+        for (Service service : serviceMapper.findByApplicationId(applicationId)) {
+            serviceIds.put(service.getName(), service.getId());
+        }
+        Map<Long, Integer> nextVersions = new HashMap<>();
+        List<Service> created = new ArrayList<>();
+        for (BatchUploadResult result : accepted) {
+            if (!serviceIds.containsKey(result.getServiceName())) {
+                Service service = new Service(applicationId, result.getServiceName());
+                serviceMapper.insert(service);
+                created.add(service);
+                serviceIds.put(result.getServiceName(), null);
+            }
+        }
+        if (!created.isEmpty()) {
+            try {
+                batchSession.flushStatements();
+                for (Service service : created) {
+                    serviceIds.put(service.getName(), service.getId());
+                    nextVersions.put(service.getId(), 1);
+                }
+            } catch (DuplicateKeyException e) {
+                // a concurrent single upload created some of them since the lookup; single
+                // uploads create their service before taking the version lock
+                for (Service service : serviceMapper.findByApplicationId(applicationId)) {
+                    serviceIds.put(service.getName(), service.getId());
+                }
+                for (Service service : created) {
+                    if (serviceIds.get(service.getName()) == null) {
+                        serviceIds.put(service.getName(), insertService(serviceMapper, applicationId, service.getName()));
+                    }
+                }
+            }
+        }
+
+        // every query flushes a BATCH session, so look up all versions before the first insert
+        for (BatchUploadResult result : accepted) {
+            nextVersions.computeIfAbsent(serviceIds.get(result.getServiceName()),
+                    id -> schemaMapper.findMaxVersionByApplicationAndService(applicationId, id) + 1);
+        }
+
+        List<Schema> schemas = new ArrayList<>(accepted.size());
+        LocalDateTime uploadedAt = LocalDateTime.now();
+        for (BatchUploadResult result : accepted) {
+            Long serviceId = serviceIds.get(result.getServiceName());
+            int version = nextVersions.merge(serviceId, 1, Integer::sum) - 1;
+
+            Schema schema = new Schema(applicationId, serviceId, version, result.getFilePath());
+            schema.setUploadedAt(uploadedAt);
+            schemaMapper.insert(schema);
+            schemas.add(schema);
+        }
+        batchSession.flushStatements();
+
+        for (int i = 0; i < schemas.size(); i++) {
+            accepted.get(i).setId(schemas.get(i).getId());
+            accepted.get(i).setVersion(schemas.get(i).getVersion());
+        }
+        return schemas;
+    }
+
+    private Long insertService(ServiceMapper serviceMapper, Long applicationId, String name) {
+        Service service = new Service(applicationId, name);
+        try {
+            serviceMapper.insert(service);
+            batchSession.flushStatements();
+            return service.getId();
+        } catch (DuplicateKeyException e) {
+            return serviceMapper.findByApplicationIdAndName(applicationId, name).getId();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.project.coding_exercise.serviceImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copy/insert delta between two versions of a document, in the spirit of a git packfile
+ * delta. Matches are anchored at line starts, since successive versions of a spec differ by
+ * inserted, removed or edited lines, and then extended byte by byte, so an unchanged region
+ * spanning many lines becomes a single copy instruction.
+ * <p>
+ * The encoded form is a sequence of {@code COPY(offset, length)} instructions, which take
+ * bytes from the base, and {@code INSERT(length, bytes)} instructions carrying new bytes.
+ */
+final class SchemaDelta {
+
+    private static final int COPY = 'C';
+    private static final int INSERT = 'I';
+    private static final int MIN_COPY_BYTES = 8;
+    private static final int MAX_CANDIDATES = 16;
+
+    private SchemaDelta() {}
+
+    static byte[] encode(byte[] base, byte[] target) {
+        Map<Integer, List<Integer>> baseLines = indexLines(base);
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(Math.max(64, target.length / 8));
+        DataOutputStream out = new DataOutputStream(encoded);
+        try {
+            int insertStart = 0;
+            int position = 0;
+            int lastCopyEnd = 0;
+            while (position < target.length) {
+                int lineEnd = lineEnd(target, position);
+                int bestOffset = -1;
+                int bestLength = 0;
+                List<Integer> candidates = baseLines.get(hash(target, position, lineEnd));
+                if (candidates != null) {
+                    // Lines such as "type: string" repeat throughout a spec; the occurrence
+                    // just after the previous copy is the likeliest continuation, so try it first.
+                    int next = firstAtOrAfter(candidates, lastCopyEnd);
+                    for (int i = 0; i < MAX_CANDIDATES && i < candidates.size(); i++) {
+                        int offset = candidates.get((next + i) % candidates.size());
+                        int length = matchLength(base, offset, target, position);
+                        if (length > bestLength) {
+                            bestOffset = offset;
+                            bestLength = length;
+                        }
+                    }
+                }
+                if (bestLength >= MIN_COPY_BYTES || (bestLength > 0 && bestLength >= lineEnd - position)) {
+                    writeInsert(out, target, insertStart, position);
+                    out.writeByte(COPY);
+                    out.writeInt(bestOffset);
+                    out.writeInt(bestLength);
+                    position += bestLength;
+                    insertStart = position;
+                    lastCopyEnd = bestOffset + bestLength;
+                } else {
+                    position = lineEnd;
+                }
+            }
+            writeInsert(out, target, insertStart, position);
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory delta encoding failed", e);
+        }
+        return encoded.toByteArray();
+    }
+
+    static byte[] apply(byte[] base, InputStream delta, int targetLength) throws IOException {
+        byte[] target = new byte[targetLength];
+        int position = 0;
+        DataInputStream in = new DataInputStream(delta);
+        int instruction;
+        while ((instruction = in.read()) != -1) {
+            if (instruction == COPY) {
+                int offset = in.readInt();
+                int length = in.readInt();
+                if (offset < 0 || length < 0 || offset + length > base.length || position + length > targetLength) {
+                    throw new IOException("Corrupt delta: copy out of range");
+                }
+                System.arraycopy(base, offset, target, position, length);
+                position += length;
+            } else if (instruction == INSERT) {
+                int length = in.readInt();
+                if (length < 0 || position + length > targetLength) {
+                    throw new IOException("Corrupt delta: insert out of range");
+                }
+                in.readFully(target, position, length);
+                position += length;
+            } else {
+                throw new IOException("Corrupt delta: unknown instruction " + instruction);
+            }
+        }
+        if (position != targetLength) {
+            throw new EOFException("Corrupt delta: produced " + position + " of " + targetLength + " bytes");
+        }
+        return target;
+    }
+
+    private static void writeInsert(DataOutputStream out, byte[] target, int from, int to) throws IOException {
+        if (to > from) {
+            out.writeByte(INSERT);
+            out.writeInt(to - from);
+            out.write(target, from, to - from);
+        }
+    }
+
+    private static Map<Integer, List<Integer>> indexLines(byte[] base) {
+        Map<Integer, List<Integer>> lines = new HashMap<>();
+        int position = 0;
+        while (position < base.length) {
+            int lineEnd = lineEnd(base, position);
+            lines.computeIfAbsent(hash(base, position, lineEnd), h -> new ArrayList<>(1)).add(position);
+            position = lineEnd;
+        }
+        return lines;
+    }
+
+    /**
+     * Exclusive end of the line starting at {@code from}, including its newline.
+     */
+    private static int lineEnd(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return bytes.length;
+    }
+
+    private static int hash(byte[] bytes, int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    private static int firstAtOrAfter(List<Integer> sortedOffsets, int offset) {
+        int low = 0;
+        int high = sortedOffsets.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedOffsets.get(mid) < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low == sortedOffsets.size() ? 0 : low;
+    }
+
+    private static int matchLength(byte[] base, int baseOffset, byte[] target, int targetOffset) {
+        int length = 0;
+        while (baseOffset + length < base.length && targetOffset + length < target.length
+                && base[baseOffset + length] == target[targetOffset + length]) {
+            length++;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,261 @@
+package com.project.coding_exercise.serviceImpl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactoryBuilder;
+import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
+import com.fasterxml.jackson.dataformat.yaml.YAMLParser;
+import com.fasterxml.jackson.dataformat.yaml.util.StringQuotingChecker;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming Jackson factories for the two formats a spec can be stored in, and token-by-token
+ * conversion between them. JSON is always written without whitespace; YAML without the
+ * document start marker and with quotes only where needed, which includes every string a
+ * YAML reader would otherwise take for a number, boolean, null or timestamp.
+ */
+final class SchemaFormats {
+
+    static final String JSON_MEDIA_TYPE = "application/json";
+    static final String YAML_MEDIA_TYPE = "application/yaml";
+
+    /**
+     * Raised whenever the output for the same input changes, so ETags derived from it change
+     * too and clients revalidating a stale copy are sent the corrected one.
+     */
+    static final int OUTPUT_REVISION = 2;
+
+    static final JsonFactory JSON = new JsonFactory();
+    static final YAMLFactory YAML = new AnchoredYamlFactory(YAMLFactory.builder()
+            .disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+            .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES)
+            .stringQuotingChecker(new PlainScalarQuoting()));
+
+    private SchemaFormats() {}
+
+    static JsonFactory factory(String mediaType) {
+        return YAML_MEDIA_TYPE.equals(mediaType) ? YAML : JSON;
+    }
+
+    static String extension(String mediaType) {
+        return YAML_MEDIA_TYPE.equals(mediaType) ? "yaml" : "json";
+    }
+
+    /**
+     * Re-serializes a document in another format without building a tree, so memory stays
+     * constant whatever the size of the document, apart from the values YAML anchors are set
+     * on, which are kept to resolve aliases.
+     */
+    static void convert(Reader source, String sourceMediaType, OutputStream target, String targetMediaType) throws IOException {
+        Aliases aliases = new Aliases();
+        try (JsonParser parser = factory(sourceMediaType).createParser(source);
+             JsonGenerator generator = factory(targetMediaType).createGenerator(target)) {
+            while (parser.nextToken() != null) {
+                aliases.copy(parser, generator);
+            }
+        }
+    }
+
+    /**
+     * Quotes, on top of Jackson's defaults, every string that a YAML 1.1 reader such as the
+     * OpenAPI parser would resolve to something other than a string: {@code "1.0"},
+     * {@code "0x1F"}, {@code "1e3"}, {@code "yes"}, {@code "~"}, {@code "2024-01-01"} and so on.
+     * Without this, minimized quotes write such strings plain and they come back as numbers,
+     * booleans, nulls or dates.
+     */
+    private static final class PlainScalarQuoting extends StringQuotingChecker.Default {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final Resolver RESOLVER = new Resolver();
+
+        @Override
+        public boolean needToQuoteName(String name) {
+            return super.needToQuoteName(name) || !readsAsString(name);
+        }
+
+        @Override
+        public boolean needToQuoteValue(String value) {
+            return super.needToQuoteValue(value) || !readsAsString(value);
+        }
+
+        private static boolean readsAsString(String plain) {
+            return Tag.STR.equals(RESOLVER.resolve(NodeId.scalar, plain, true));
+        }
+    }
+
+    /**
+     * Copies values from a parser to a generator, replacing each YAML alias with the value
+     * its anchor was set on. Jackson reports an alias as a string holding the anchor name,
+     * which would turn {@code Order: *base} into {@code "Order": "base"}. Anchored values are
+     * buffered as they are read, so only they are held in memory, and the values produced by
+     * expanding aliases are capped since nested aliases expand exponentially.
+     */
+    static final class Aliases {
+
+        private static final long MAX_EXPANDED_TOKENS = 1_000_000;
+
+        private final Map<String, TokenBuffer> anchored = new HashMap<>();
+        private long expanded;
+
+        /**
+         * Copies the value at the parser's current token, leaving the parser on its last token.
+         */
+        void copy(JsonParser parser, JsonGenerator generator) throws IOException {
+            if (isAlias(parser)) {
+                replay(resolve(parser.getText()), generator, true);
+            } else if (anchor(parser) != null) {
+                replay(record(parser), generator, false);
+            } else {
+                copyValue(parser, generator);
+            }
+        }
+
+        private void copyValue(JsonParser parser, JsonGenerator generator) throws IOException {
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                generator.writeStartObject();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    generator.writeFieldName(parser.currentName());
+                    parser.nextToken();
+                    copy(parser, generator);
+                }
+                generator.writeEndObject();
+            } else if (parser.currentToken() == JsonToken.START_ARRAY) {
+                generator.writeStartArray();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    copy(parser, generator);
+                }
+                generator.writeEndArray();
+            } else {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+
+        /**
+         * Skips the value at the parser's current token like {@link JsonParser#skipChildren()},
+         * but remembers the anchors set inside it for aliases further on.
+         */
+        void skip(JsonParser parser) throws IOException {
+            if (!(parser instanceof YAMLParser)) {
+                parser.skipChildren();
+                return;
+            }
+            int depth = 0;
+            JsonToken token = parser.currentToken();
+            while (true) {
+                if (token != JsonToken.FIELD_NAME && anchor(parser) != null) {
+                    record(parser);
+                } else if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+                if (depth == 0) {
+                    return;
+                }
+                token = parser.nextToken();
+            }
+        }
+
+        /**
+         * A parser over the value behind the alias at the parser's current token, positioned
+         * on its first token, or the given parser itself when it is not on an alias.
+         */
+        JsonParser follow(JsonParser parser) throws IOException {
+            if (!isAlias(parser)) {
+                return parser;
+            }
+            JsonParser value = resolve(parser.getText()).asParser();
+            value.nextToken();
+            return value;
+        }
+
+        private TokenBuffer record(JsonParser parser) throws IOException {
+            String anchor = anchor(parser);
+            TokenBuffer value = new TokenBuffer((ObjectCodec) null, false);
+            copyValue(parser, value);
+            // a later anchor of the same name replaces the earlier one
+            anchored.put(anchor, value);
+            return value;
+        }
+
+        private TokenBuffer resolve(String alias) throws IOException {
+            TokenBuffer value = anchored.get(alias);
+            if (value == null) {
+                throw new IOException("YAML alias *" + alias + " does not refer to an earlier anchor");
+            }
+            return value;
+        }
+
+        private void replay(TokenBuffer value, JsonGenerator generator, boolean expansion) throws IOException {
+            try (JsonParser recorded = value.asParser()) {
+                while (recorded.nextToken() != null) {
+                    if (expansion && ++expanded > MAX_EXPANDED_TOKENS) {
+                        throw new IOException("YAML aliases expand to more than " + MAX_EXPANDED_TOKENS + " tokens");
+                    }
+                    generator.copyCurrentEvent(recorded);
+                }
+            }
+        }
+
+        private static boolean isAlias(JsonParser parser) {
+            return parser instanceof YAMLParser yaml && yaml.isCurrentAlias();
+        }
+
+        private static String anchor(JsonParser parser) throws IOException {
+            return parser instanceof YAMLParser yaml ? yaml.getObjectId() : null;
+        }
+    }
+
+    /**
+     * Creates {@link AnchoredYamlParser}s for documents read through a {@link Reader}, which
+     * is how every document here is parsed.
+     */
+    private static final class AnchoredYamlFactory extends YAMLFactory {
+
+        private static final long serialVersionUID = 1L;
+
+        AnchoredYamlFactory(YAMLFactoryBuilder builder) {
+            super(builder);
+        }
+
+        @Override
+        protected YAMLParser _createParser(Reader reader, IOContext context) {
+            return new AnchoredYamlParser(context, _parserFeatures, _yamlParserFeatures, _loaderOptions, _objectCodec, reader);
+        }
+    }
+
+    /**
+     * Reports the anchor of every value. The stock parser loses the anchor of a scalar value
+     * and keeps reporting a mapping's anchor on its first field name.
+     */
+    private static final class AnchoredYamlParser extends YAMLParser {
+
+        AnchoredYamlParser(IOContext context, int parserFeatures, int formatFeatures, LoaderOptions loaderOptions,
+                           ObjectCodec codec, Reader reader) {
+            super(context, parserFeatures, formatFeatures, loaderOptions, codec, reader);
+        }
+
+        @Override
+        public String getObjectId() {
+            return _lastEvent instanceof NodeEvent node && !(node instanceof AliasEvent) ? node.getAnchor() : null;
+        }
+    }
+}
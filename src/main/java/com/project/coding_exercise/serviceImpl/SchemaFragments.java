@@ -0,0 +1,132 @@
+package com.project.coding_exercise.serviceImpl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.project.coding_exercise.service.InvalidSchemaPointerException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extracts the subtree addressed by a JSON Pointer (RFC 6901) from a JSON or YAML document
+ * with a streaming parser. Siblings on the way down are skipped without being materialized
+ * and parsing stops as soon as the subtree has been copied, so memory is proportional to
+ * the fragment rather than the document. YAML aliases, on the way down or inside the
+ * fragment, are replaced with the anchored value, which is the only part of a skipped
+ * sibling that is kept. The fragment can be written in either format, whatever the format
+ * of the source document.
+ */
+final class SchemaFragments {
+
+    private SchemaFragments() {}
+
+    /**
+     * @param pointer a JSON Pointer such as {@code /components/schemas/Order}, optionally in
+     *                its URI fragment form {@code #/components/schemas/Order}; the empty
+     *                pointer addresses the whole document
+     * @return the subtree serialized as {@code targetMediaType}, or {@code null} if nothing
+     *         is at the pointer
+     * @throws InvalidSchemaPointerException if the pointer is not a valid JSON Pointer
+     */
+    static byte[] extract(Reader reader, String sourceMediaType, String pointer, String targetMediaType) throws IOException {
+        List<String> tokens = parsePointer(pointer);
+        SchemaFormats.Aliases aliases = new SchemaFormats.Aliases();
+        try (JsonParser document = SchemaFormats.factory(sourceMediaType).createParser(reader)) {
+            if (document.nextToken() == null) {
+                return null;
+            }
+            JsonParser parser = document;
+            for (String name : tokens) {
+                // an alias on the way down continues in a copy of the anchored value
+                parser = aliases.follow(parser);
+                JsonToken token;
+                if (parser.currentToken() == JsonToken.START_OBJECT) {
+                    token = descendIntoField(parser, name, aliases);
+                } else if (parser.currentToken() == JsonToken.START_ARRAY) {
+                    token = descendIntoElement(parser, name, aliases);
+                } else {
+                    token = null;
+                }
+                if (token == null) {
+                    return null;
+                }
+            }
+            ByteArrayOutputStream fragment = new ByteArrayOutputStream();
+            try (JsonGenerator generator = SchemaFormats.factory(targetMediaType).createGenerator(fragment)) {
+                aliases.copy(parser, generator);
+            }
+            return fragment.toByteArray();
+        }
+    }
+
+    /**
+     * Advances to the value of field {@code name} of the current object.
+     */
+    private static JsonToken descendIntoField(JsonParser parser, String name, SchemaFormats.Aliases aliases) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (name.equals(field)) {
+                return value;
+            }
+            aliases.skip(parser);
+        }
+        return null;
+    }
+
+    /**
+     * Advances to element {@code index} of the current array.
+     */
+    private static JsonToken descendIntoElement(JsonParser parser, String index, SchemaFormats.Aliases aliases) throws IOException {
+        if (!index.matches("0|[1-9][0-9]{0,8}")) {
+            return null;
+        }
+        int remaining = Integer.parseInt(index);
+        JsonToken element;
+        while ((element = parser.nextToken()) != JsonToken.END_ARRAY && element != null) {
+            if (remaining-- == 0) {
+                return element;
+            }
+            aliases.skip(parser);
+        }
+        return null;
+    }
+
+    /**
+     * Checks the pointer up front, before a lookup whose extraction runs only once the
+     * response is written.
+     *
+     * @throws InvalidSchemaPointerException if the pointer is not a valid JSON Pointer
+     */
+    static void checkPointer(String pointer) {
+        parsePointer(pointer);
+    }
+
+    private static List<String> parsePointer(String pointer) {
+        String path = pointer;
+        if (path.startsWith("#")) {
+            // percent-decoding only; a '+' in a URI fragment is not a space
+            path = URLDecoder.decode(path.substring(1).replace("+", "%2B"), StandardCharsets.UTF_8);
+        }
+        if (path.isEmpty()) {
+            return List.of();
+        }
+        if (!path.startsWith("/")) {
+            throw new InvalidSchemaPointerException("JSON Pointer must start with '/': " + pointer);
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : path.substring(1).split("/", -1)) {
+            if (token.matches(".*~(?![01]).*")) {
+                throw new InvalidSchemaPointerException("Invalid escape in JSON Pointer: " + pointer);
+            }
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+}
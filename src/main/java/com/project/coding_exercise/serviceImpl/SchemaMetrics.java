@@ -0,0 +1,127 @@
+package com.project.coding_exercise.serviceImpl;
+
+import com.project.coding_exercise.cache.OpenApiParseCache;
+import com.project.coding_exercise.cache.SchemaDiffCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Upload and cache metrics, published through Actuator ({@code /actuator/metrics},
+ * {@code /actuator/prometheus}).
+ * <ul>
+ *   <li>{@code schema.upload.stage}: time per upload stage ({@code stage} tag), with
+ *       percentile histograms so tail latency can be attributed to a stage</li>
+ *   <li>{@code schema.uploads}: uploads by {@code application} and {@code outcome}
+ *       ({@code stored}, {@code invalid}, {@code failed})</li>
+ *   <li>{@code schema.upload.payload}: uploaded bytes by {@code application}</li>
+ *   <li>{@code schema.validation.failures}: invalid specs</li>
+ *   <li>{@code schema.cache.requests}: read cache hits and misses by {@code application}</li>
+ *   <li>{@code schema.parse.cache.requests}, {@code schema.diff.cache.requests}: hits and
+ *       misses of the parse and diff caches</li>
+ * </ul>
+ * Only applications that exist get their own series: stored uploads, and cache requests
+ * for a schema that was found. Rejected uploads, invalid specs and lookups that found
+ * nothing are reported as application {@code all}, so clients sending arbitrary names
+ * cannot grow the number of series. With {@code schema.metrics.application-tag=false}
+ * every application is reported as {@code all}, for deployments with too many
+ * applications for per-application series.
+ */
+@Component
+public class SchemaMetrics {
+
+    public static final String UPLOAD_STAGE = "schema.upload.stage";
+    public static final String UPLOADS = "schema.uploads";
+    public static final String UPLOAD_PAYLOAD = "schema.upload.payload";
+    public static final String VALIDATION_FAILURES = "schema.validation.failures";
+    public static final String CACHE_REQUESTS = "schema.cache.requests";
+
+    private static final String ALL_APPLICATIONS = "all";
+    private static final String STORED = "stored";
+
+    private final MeterRegistry registry;
+    private final boolean tagApplications;
+
+    public SchemaMetrics(MeterRegistry registry, OpenApiParseCache parseCache, SchemaDiffCache diffCache,
+                         @Value("${schema.metrics.application-tag:true}") boolean tagApplications) {
+        this.registry = registry;
+        this.tagApplications = tagApplications;
+        FunctionCounter.builder("schema.parse.cache.requests", parseCache, cache -> cache.stats().hitCount())
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("schema.parse.cache.requests", parseCache, cache -> cache.stats().missCount())
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("schema.diff.cache.requests", diffCache, cache -> cache.stats().hitCount())
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("schema.diff.cache.requests", diffCache, cache -> cache.stats().missCount())
+                .tag("result", "miss").register(registry);
+    }
+
+    @FunctionalInterface
+    public interface StageCall<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Runs one stage of an upload and records its duration, whether it completes or throws.
+     */
+    public <T> T time(String stage, StageCall<T> call) throws Exception {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return call.call();
+        } finally {
+            sample.stop(stageTimer(stage));
+        }
+    }
+
+    /**
+     * @param applicationName tagged only for {@code stored} uploads, the only outcome that
+     *                        leaves the application in the registry
+     */
+    public void uploaded(String applicationName, String outcome, long bytes) {
+        String application = applicationTag(STORED.equals(outcome) ? applicationName : null);
+        Counter.builder(UPLOADS)
+                .tag("application", application)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+        DistributionSummary.builder(UPLOAD_PAYLOAD)
+                .baseUnit("bytes")
+                .tag("application", application)
+                .register(registry)
+                .record(bytes);
+    }
+
+    public void validationFailed() {
+        Counter.builder(VALIDATION_FAILURES)
+                .tag("application", ALL_APPLICATIONS)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * @param applicationName an application known to exist, or {@code null} when the lookup
+     *                        found nothing
+     */
+    public void cacheRequest(String applicationName, boolean hit) {
+        Counter.builder(CACHE_REQUESTS)
+                .tag("application", applicationTag(applicationName))
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder(UPLOAD_STAGE)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private String applicationTag(String applicationName) {
+        return tagApplications && applicationName != null ? applicationName : ALL_APPLICATIONS;
+    }
+}
@@ -0,0 +1,321 @@
+package com.project.coding_exercise.serviceImpl;
+
+import com.project.coding_exercise.service.SchemaRefUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local, content-addressed store for documents referenced through remote {@code $ref}s.
+ * The first time a URL is referenced its document is fetched, stored as
+ * {@code {storagePath}/refs/{sha256}.{ext}} and recorded in {@code refs/index.properties};
+ * from then on every schema referencing it is rewritten to point at the local copy before
+ * parsing, so the parser reads a local file instead of going to the network. Remote refs
+ * inside fetched documents, including relative ones, are pinned the same way.
+ * <p>
+ * Concurrent uploads referencing the same unpinned URL share one fetch; uploads referencing
+ * other URLs are not held up by it. A failed fetch surfaces as
+ * {@link SchemaRefUnavailableException} and is retried by the next upload.
+ * <p>
+ * Pinned documents are never refreshed, which keeps validation of a given upload
+ * deterministic. With {@code schema.refs.offline=true} nothing is fetched and a URL missing
+ * from the store fails validation; an air-gapped deployment is seeded by copying the
+ * {@code refs} directory.
+ */
+@Component
+public class SchemaRefStore {
+
+    private static final Pattern REF = Pattern.compile("(\\$ref[\"']?\\s*:\\s*[\"']?)([^\"'#\\s,}]+)");
+    private static final String INDEX_FILE = "index.properties";
+
+    @Value("${schema.storage.path:./schemas}")
+    private String storagePath;
+
+    @Value("${schema.refs.offline:false}")
+    private boolean offline = false;
+
+    @Value("${schema.refs.fetch-timeout-ms:10000}")
+    private long fetchTimeoutMillis = 10000;
+
+    @Value("${schema.upload.max-bytes:52428800}")
+    private long maxDocumentBytes = 52428800;
+
+    private final Map<String, CompletableFuture<byte[]>> fetches = new ConcurrentHashMap<>();
+    // guards lazy initialisation and index writes, never a fetch
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Map<String, Path> documents;
+    private volatile HttpClient httpClient;
+
+    /**
+     * Rewrites the remote {@code $ref}s of an uploaded document to their pinned local copies,
+     * fetching documents that are not pinned yet. Relative refs are left untouched.
+     *
+     * @throws SchemaRefUnavailableException when a referenced document cannot be fetched
+     * @throws IOException when offline and a referenced document is not pinned
+     */
+    public String localize(String content) throws IOException {
+        return rewrite(content, null, new HashMap<>());
+    }
+
+    /**
+     * Number of pinned documents.
+     */
+    public int size() {
+        return documents().size();
+    }
+
+    private String rewrite(String content, URI base, Map<String, Path> inProgress) throws IOException {
+        Matcher matcher = REF.matcher(content);
+        StringBuilder rewritten = null;
+        int last = 0;
+        while (matcher.find()) {
+            String url = remoteUrl(matcher.group(2), base);
+            if (url == null) {
+                continue;
+            }
+            if (rewritten == null) {
+                rewritten = new StringBuilder(content.length());
+            }
+            rewritten.append(content, last, matcher.start(2))
+                    .append(pin(url, inProgress).toAbsolutePath().toString().replace('\\', '/'));
+            last = matcher.end(2);
+        }
+        if (rewritten == null) {
+            return content;
+        }
+        return rewritten.append(content, last, content.length()).toString();
+    }
+
+    private static String remoteUrl(String target, URI base) {
+        if (isRemote(target)) {
+            return target;
+        }
+        if (base == null) {
+            return null;
+        }
+        try {
+            String resolved = base.resolve(target).toString();
+            return isRemote(resolved) ? resolved : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isRemote(String target) {
+        String lower = target.toLowerCase(Locale.ROOT);
+        return lower.startsWith("http://") || lower.startsWith("https://");
+    }
+
+    private Path pin(String url, Map<String, Path> inProgress) throws IOException {
+        Path pinned = documents().get(url);
+        if (pinned == null) {
+            pinned = inProgress.get(url);
+        }
+        if (pinned != null) {
+            return pinned;
+        }
+        if (offline) {
+            throw new IOException("Referenced document " + url + " is not in the local reference store");
+        }
+        byte[] bytes = fetchOnce(url);
+        Path path = refsRoot().resolve(sha256(bytes) + extension(url));
+        try {
+            // registered before its own refs are rewritten, so reference cycles terminate
+            inProgress.put(url, path);
+            // only the download is shared: a caller racing on the same URL rewrites it too and
+            // writes identical content, which cannot deadlock on refs pinned by the other caller
+            String localized = rewrite(new String(bytes, StandardCharsets.UTF_8), URI.create(url), inProgress);
+            if (!Files.exists(path)) {
+                writeAtomically(path, localized.getBytes(StandardCharsets.UTF_8));
+            }
+            documents.put(url, path);
+        } finally {
+            // also when a nested ref fails, so the next upload downloads this document again
+            fetches.remove(url);
+        }
+        saveIndex();
+        return path;
+    }
+
+    /**
+     * Downloads a URL, or waits for the download another caller already started. A failed
+     * download is forgotten straight away so the next upload tries again.
+     */
+    private byte[] fetchOnce(String url) {
+        CompletableFuture<byte[]> fetch = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = fetches.putIfAbsent(url, fetch);
+        if (running == null) {
+            try {
+                fetch.complete(fetch(url));
+            } catch (IOException | RuntimeException e) {
+                fetch.completeExceptionally(e);
+                fetches.remove(url, fetch);
+            }
+            running = fetch;
+        }
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw new SchemaRefUnavailableException(url, cause instanceof IOException io ? io : new IOException(cause));
+        }
+    }
+
+    private byte[] fetch(String url) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(fetchTimeoutMillis))
+                .GET()
+                .build();
+        try {
+            HttpResponse<InputStream> response = httpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new IOException("Fetching referenced document " + url + " returned HTTP " + response.statusCode());
+                }
+                byte[] bytes = body.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxDocumentBytes + 1));
+                if (bytes.length > maxDocumentBytes) {
+                    throw new IOException("Referenced document " + url + " exceeds " + maxDocumentBytes + " bytes");
+                }
+                return bytes;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching referenced document " + url, e);
+        }
+    }
+
+    private static String extension(String url) {
+        String path = URI.create(url).getPath();
+        String lower = path != null ? path.toLowerCase(Locale.ROOT) : "";
+        for (String extension : new String[] {".json", ".yaml", ".yml"}) {
+            if (lower.endsWith(extension)) {
+                return extension;
+            }
+        }
+        return "";
+    }
+
+    private Map<String, Path> documents() {
+        Map<String, Path> loaded = documents;
+        if (loaded == null) {
+            lock.lock();
+            try {
+                loaded = documents;
+                if (loaded == null) {
+                    loaded = loadIndex();
+                    documents = loaded;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return loaded;
+    }
+
+    private Map<String, Path> loadIndex() {
+        Map<String, Path> loaded = new ConcurrentHashMap<>();
+        Path index = refsRoot().resolve(INDEX_FILE);
+        if (Files.exists(index)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read reference index " + index, e);
+            }
+            for (String url : properties.stringPropertyNames()) {
+                Path path = refsRoot().resolve(properties.getProperty(url));
+                if (Files.exists(path)) {
+                    loaded.put(url, path);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private void saveIndex() throws IOException {
+        // serialised so an older snapshot never replaces a newer one
+        lock.lock();
+        try {
+            Properties properties = new Properties();
+            documents.forEach((url, path) -> properties.setProperty(url, path.getFileName().toString()));
+            Path index = refsRoot().resolve(INDEX_FILE);
+            Path temp = Files.createTempFile(Files.createDirectories(refsRoot()), "index-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Pinned $ref documents: URL = stored file");
+            }
+            Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeAtomically(Path path, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(Files.createDirectories(path.getParent()), "ref-", ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private HttpClient httpClient() {
+        HttpClient client = httpClient;
+        if (client == null) {
+            lock.lock();
+            try {
+                client = httpClient;
+                if (client == null) {
+                    client = HttpClient.newBuilder()
+                            .connectTimeout(Duration.ofMillis(fetchTimeoutMillis))
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .build();
+                    httpClient = client;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return client;
+    }
+
+    private Path refsRoot() {
+        return Paths.get(storagePath).toAbsolutePath().resolve("refs");
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.project.coding_exercise.serviceImpl;
+
+import com.project.coding_exercise.db.dto.StoredBlob;
+import com.project.coding_exercise.service.SchemaStorageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Schemas converted to the format they were not uploaded in. A rendition is written once,
+ * next to the blob store as {@code {storagePath}/renditions/v{revision}/{hash}.json} or
+ * {@code .yaml}, and every later request for that format of any version with the same
+ * content is served from that file. Blobs are immutable, so renditions never need
+ * invalidating; when the conversion itself changes, {@link SchemaFormats#OUTPUT_REVISION}
+ * moves them to a new directory and the old one can be deleted. Conversion
+ * streams tokens from the stored document into the rendition, so it never holds the
+ * document on heap. Legacy rows, which have no content hash, are converted per request.
+ */
+@Component
+public class SchemaRenditions {
+
+    @Autowired
+    private SchemaStorageService storageService;
+
+    @Value("${schema.storage.path:./schemas}")
+    private String storagePath;
+
+    /**
+     * The stored schema at {@code filePath}, uploaded as {@code sourceMediaType}, in
+     * {@code targetMediaType}.
+     */
+    public StoredBlob render(String filePath, String sourceMediaType, String targetMediaType) throws IOException {
+        if (!SchemaStorageServiceImpl.isContentHash(filePath)) {
+            ByteArrayOutputStream converted = new ByteArrayOutputStream();
+            convert(filePath, sourceMediaType, converted, targetMediaType);
+            return new StoredBlob(converted.toByteArray());
+        }
+
+        Path rendition = renditionsRoot().resolve(filePath + "." + SchemaFormats.extension(targetMediaType));
+        if (!Files.exists(rendition)) {
+            Path temp = Files.createTempFile(Files.createDirectories(rendition.getParent()), "rendition-", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    convert(filePath, sourceMediaType, out, targetMediaType);
+                }
+                moveAtomically(temp, rendition);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return new StoredBlob(rendition, null, Files.size(rendition));
+    }
+
+    private void convert(String filePath, String sourceMediaType, OutputStream target, String targetMediaType) throws IOException {
+        try (Reader source = new InputStreamReader(storageService.openContent(filePath), StandardCharsets.UTF_8)) {
+            SchemaFormats.convert(source, sourceMediaType, target, targetMediaType);
+        }
+    }
+
+    private Path renditionsRoot() {
+        return Paths.get(storagePath).toAbsolutePath().resolve("renditions").resolve("v" + SchemaFormats.OUTPUT_REVISION);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
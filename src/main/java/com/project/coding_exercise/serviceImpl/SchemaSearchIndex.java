@@ -0,0 +1,193 @@
+package com.project.coding_exercise.serviceImpl;
+
+import com.project.coding_exercise.db.dto.SchemaSearchHit;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the latest schema of every application/service. Each schema
+ * contributes terms for its path templates, methods, operations, operationIds, tags and
+ * component names; a search intersects the posting sets of the requested terms, so it
+ * costs a few hash lookups instead of parsing any schema.
+ * <p>
+ * Path template variables are normalised ({@code /users/{id}} and {@code /users/{userId}}
+ * are the same template). Updates replace the previous version of the same
+ * application/service and are ignored when they are not newer than the indexed version.
+ */
+@Component
+public class SchemaSearchIndex {
+
+    private static final Pattern TEMPLATE_VARIABLE = Pattern.compile("\\{[^}/]*}");
+    private static final Comparator<SchemaSearchHit> HIT_ORDER = Comparator
+            .comparing(SchemaSearchHit::getApplicationName)
+            .thenComparing(SchemaSearchHit::getServiceName, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<String, Set<IndexedSchema>> postings = new ConcurrentHashMap<>();
+    private final Map<SchemaKey, IndexedSchema> documents = new ConcurrentHashMap<>();
+
+    public synchronized void index(String applicationName, String serviceName, Integer version, OpenAPI model) {
+        SchemaKey key = new SchemaKey(applicationName, serviceName);
+        IndexedSchema current = documents.get(key);
+        if (current != null && current.version >= version) {
+            return;
+        }
+        IndexedSchema indexed = new IndexedSchema(applicationName, serviceName, version, terms(model));
+        for (String term : indexed.terms) {
+            postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(indexed);
+        }
+        documents.put(key, indexed);
+        if (current != null) {
+            for (String term : current.terms) {
+                Set<IndexedSchema> posting = postings.get(term);
+                posting.remove(current);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Schemas carrying every one of the given terms, ordered by application and service.
+     */
+    public List<SchemaSearchHit> search(Collection<String> terms) {
+        List<Set<IndexedSchema>> sets = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Set<IndexedSchema> posting = postings.get(term);
+            if (posting == null) {
+                return List.of();
+            }
+            sets.add(posting);
+        }
+        if (sets.isEmpty()) {
+            return List.of();
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+
+        List<SchemaSearchHit> hits = new ArrayList<>();
+        for (IndexedSchema candidate : sets.get(0)) {
+            if (sets.stream().skip(1).allMatch(set -> set.contains(candidate))) {
+                hits.add(new SchemaSearchHit(candidate.applicationName, candidate.serviceName, candidate.version));
+            }
+        }
+        hits.sort(HIT_ORDER);
+        return hits;
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public static String pathTerm(String path) {
+        return "path:" + normalizePath(path);
+    }
+
+    public static String methodTerm(String method) {
+        return "method:" + method.toUpperCase(Locale.ROOT);
+    }
+
+    public static String operationTerm(String method, String path) {
+        return "operation:" + method.toUpperCase(Locale.ROOT) + " " + normalizePath(path);
+    }
+
+    public static String operationIdTerm(String operationId) {
+        return "operationId:" + operationId;
+    }
+
+    public static String tagTerm(String tag) {
+        return "tag:" + tag;
+    }
+
+    public static String componentTerm(String name) {
+        return "component:" + name;
+    }
+
+    private static String normalizePath(String path) {
+        return TEMPLATE_VARIABLE.matcher(path.trim()).replaceAll("{}");
+    }
+
+    private static Set<String> terms(OpenAPI model) {
+        Set<String> terms = new HashSet<>();
+        if (model.getPaths() != null) {
+            model.getPaths().forEach((path, item) -> {
+                terms.add(pathTerm(path));
+                item.readOperationsMap().forEach((method, operation) -> {
+                    terms.add(methodTerm(method.name()));
+                    terms.add(operationTerm(method.name(), path));
+                    addOperationTerms(terms, operation);
+                });
+            });
+        }
+        if (model.getTags() != null) {
+            model.getTags().stream().filter(tag -> tag.getName() != null).forEach(tag -> terms.add(tagTerm(tag.getName())));
+        }
+        Components components = model.getComponents();
+        if (components != null) {
+            addComponentTerms(terms, components.getSchemas());
+            addComponentTerms(terms, components.getResponses());
+            addComponentTerms(terms, components.getParameters());
+            addComponentTerms(terms, components.getExamples());
+            addComponentTerms(terms, components.getRequestBodies());
+            addComponentTerms(terms, components.getHeaders());
+            addComponentTerms(terms, components.getSecuritySchemes());
+            addComponentTerms(terms, components.getLinks());
+            addComponentTerms(terms, components.getCallbacks());
+            addComponentTerms(terms, components.getPathItems());
+        }
+        return terms;
+    }
+
+    private static void addOperationTerms(Set<String> terms, Operation operation) {
+        if (operation.getOperationId() != null) {
+            terms.add(operationIdTerm(operation.getOperationId()));
+        }
+        if (operation.getTags() != null) {
+            operation.getTags().stream().filter(Objects::nonNull).forEach(tag -> terms.add(tagTerm(tag)));
+        }
+    }
+
+    private static void addComponentTerms(Set<String> terms, Map<String, ?> components) {
+        if (components != null) {
+            components.keySet().forEach(name -> terms.add(componentTerm(name)));
+        }
+    }
+
+    private record SchemaKey(String applicationName, String serviceName) {}
+
+    /**
+     * One indexed schema. Compared by identity, so a re-indexed version is never confused
+     * with the entry it replaces.
+     */
+    private static final class IndexedSchema {
+        private final String applicationName;
+        private final String serviceName;
+        private final int version;
+        private final Set<String> terms;
+
+        private IndexedSchema(String applicationName, String serviceName, int version, Set<String> terms) {
+            this.applicationName = applicationName;
+            this.serviceName = serviceName;
+            this.version = version;
+            this.terms = terms;
+        }
+    }
+}
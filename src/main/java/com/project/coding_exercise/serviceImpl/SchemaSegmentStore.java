@@ -0,0 +1,381 @@
+package com.project.coding_exercise.serviceImpl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only segment files holding schema blobs, used by {@link SchemaStorageServiceImpl}
+ * when {@code schema.storage.segments.enabled=true}. Blobs are appended to the active
+ * segment ({@code {storagePath}/segments/{id}.seg}) as self-describing records (hash,
+ * content encoding, length, bytes) and located through an in-memory hash index, so a
+ * million versions cost a handful of files instead of a million files and directories.
+ * <p>
+ * When the active segment would grow beyond {@code max-bytes} it is sealed: its record
+ * index is written next to it as {@code {id}.idx} and a new segment is started. At startup
+ * sealed segments are indexed from their {@code .idx} files and the active one is scanned,
+ * dropping a torn record left by a crash. If a hash occurs in several segments, the
+ * newest record wins. Reads return a slice of a read-only memory mapping of the segment,
+ * so a hot schema is served from the page cache without opening a file or copying it.
+ */
+final class SchemaSegmentStore {
+
+    private static final String NONE = "none";
+    private static final int RECORD_MAGIC = 0x53534731;
+    private static final int HASH_BYTES = 32;
+    private static final int HEADER_BYTES = 4 + HASH_BYTES + 1 + 4;
+    private static final String[] ENCODINGS = {NONE, "gzip", "delta"};
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final Map<Integer, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+
+    private int activeId;
+    private FileChannel active;
+    private long activeSize;
+
+    /**
+     * Position of a blob's bytes within a segment.
+     */
+    record Location(int segment, long offset, int length, String encoding) {
+    }
+
+    SchemaSegmentStore(Path directory, long maxSegmentBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSegmentBytes = Math.min(maxSegmentBytes, Integer.MAX_VALUE);
+        load();
+    }
+
+    Location find(String hash) {
+        return index.get(hash);
+    }
+
+    /**
+     * The blob's bytes as a slice of its segment mapping.
+     */
+    ByteBuffer read(String hash) throws IOException {
+        Location location = index.get(hash);
+        if (location == null) {
+            throw new NoSuchFileException(hash);
+        }
+        try {
+            return read(location);
+        } catch (NoSuchFileException e) {
+            // the segment was compacted between the lookup and the read
+            Location moved = index.get(hash);
+            if (moved == null || moved.equals(location)) {
+                throw e;
+            }
+            return read(moved);
+        }
+    }
+
+    /**
+     * Appends the contents of {@code source} as the blob of {@code hash}, unless the hash is
+     * already stored, and forces the record to disk before returning.
+     */
+    synchronized Location append(String hash, String encoding, Path source) throws IOException {
+        Location existing = index.get(hash);
+        if (existing != null) {
+            return existing;
+        }
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long length = in.size();
+            if (length > maxSegmentBytes - HEADER_BYTES) {
+                throw new IOException("Blob of " + length + " bytes does not fit in a segment of " + maxSegmentBytes + " bytes");
+            }
+            FileChannel out = activeFor(length);
+            long start = activeSize;
+            writeFully(out, header(hash, encoding, (int) length), start);
+            long position = start + HEADER_BYTES;
+            long transferred = 0;
+            while (transferred < length) {
+                transferred += in.transferTo(transferred, length - transferred, out.position(position + transferred));
+            }
+            out.force(false);
+            activeSize = position + length;
+            Location location = new Location(activeId, position, (int) length, encoding);
+            index.put(hash, location);
+            return location;
+        }
+    }
+
+    /**
+     * Rewrites every sealed segment in which at least {@code minGarbageRatio} of the bytes
+     * belong to blobs that are no longer {@code live} or were superseded by a newer record.
+     * Live blobs are re-appended to the active segment and the old segment is deleted.
+     * Dropped blobs disappear from the index.
+     *
+     * @return bytes reclaimed
+     */
+    synchronized long compact(Predicate<String> live, double minGarbageRatio) throws IOException {
+        Map<Integer, List<Map.Entry<String, Location>>> liveBySegment = new HashMap<>();
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            if (entry.getValue().segment() == activeId) {
+                continue;
+            }
+            if (live.test(entry.getKey())) {
+                liveBySegment.computeIfAbsent(entry.getValue().segment(), id -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        long reclaimed = 0;
+        for (int segment : sealedSegments()) {
+            long size = Files.size(segmentPath(segment));
+            List<Map.Entry<String, Location>> kept = liveBySegment.getOrDefault(segment, List.of());
+            long liveBytes = kept.stream().mapToLong(entry -> HEADER_BYTES + entry.getValue().length()).sum();
+            if (size == liveBytes || size - liveBytes < minGarbageRatio * size) {
+                continue;
+            }
+            for (Map.Entry<String, Location> entry : kept) {
+                relocate(entry.getKey(), entry.getValue());
+            }
+            index.values().removeIf(location -> location.segment() == segment);
+            mappings.remove(segment);
+            try {
+                Files.delete(segmentPath(segment));
+            } catch (IOException e) {
+                // still mapped somewhere (Windows); its records are superseded or dropped, so
+                // the next compaction after a restart removes it
+                continue;
+            }
+            Files.deleteIfExists(indexPath(segment));
+            reclaimed += size - liveBytes;
+        }
+        return reclaimed;
+    }
+
+    private ByteBuffer read(Location location) throws IOException {
+        MappedByteBuffer mapping = mapping(location.segment(), location.offset() + location.length());
+        return mapping.slice((int) location.offset(), location.length());
+    }
+
+    /**
+     * Mapping of a segment covering at least {@code end} bytes. Sealed segments are mapped
+     * once; the active segment is remapped when a read reaches past the current mapping.
+     */
+    private MappedByteBuffer mapping(int segment, long end) throws IOException {
+        MappedByteBuffer mapping = mappings.get(segment);
+        if (mapping != null && mapping.capacity() >= end) {
+            return mapping;
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapping.capacity() < end) {
+            throw new IOException("Segment " + segment + " is shorter than its index");
+        }
+        mappings.put(segment, mapping);
+        return mapping;
+    }
+
+    private void relocate(String hash, Location location) throws IOException {
+        ByteBuffer content = read(location);
+        FileChannel out = activeFor(location.length());
+        long start = activeSize;
+        writeFully(out, header(hash, location.encoding(), location.length()), start);
+        writeFully(out, content, start + HEADER_BYTES);
+        out.force(false);
+        activeSize = start + HEADER_BYTES + location.length();
+        index.put(hash, new Location(activeId, start + HEADER_BYTES, location.length(), location.encoding()));
+    }
+
+    /**
+     * Active segment with room for a blob of {@code length} bytes, sealing the current one
+     * first if it is not empty and the blob would push it past the maximum size.
+     */
+    private FileChannel activeFor(long length) throws IOException {
+        if (activeSize > 0 && activeSize + HEADER_BYTES + length > maxSegmentBytes) {
+            seal();
+        }
+        if (active == null) {
+            active = FileChannel.open(segmentPath(activeId), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+        return active;
+    }
+
+    private void seal() throws IOException {
+        writeIndex(activeId);
+        active.close();
+        active = null;
+        mappings.remove(activeId);
+        activeId++;
+        activeSize = 0;
+        // created right away, so a restart treats it and not the sealed one as active
+        active = FileChannel.open(segmentPath(activeId), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private void writeIndex(int segment) throws IOException {
+        Path temp = Files.createTempFile(directory, "index-", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+                for (Map.Entry<String, Location> entry : index.entrySet()) {
+                    Location location = entry.getValue();
+                    if (location.segment() == segment) {
+                        out.write(HexFormat.of().parseHex(entry.getKey()));
+                        out.writeByte(encodingCode(location.encoding()));
+                        out.writeLong(location.offset());
+                        out.writeInt(location.length());
+                    }
+                }
+            }
+            Files.move(temp, indexPath(segment), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void load() throws IOException {
+        List<Integer> segments = segmentIds();
+        for (int i = 0; i < segments.size(); i++) {
+            int segment = segments.get(i);
+            boolean last = i == segments.size() - 1;
+            if (!last && Files.exists(indexPath(segment))) {
+                readIndex(segment);
+            } else {
+                long valid = scan(segment);
+                if (last) {
+                    activeId = segment;
+                    activeSize = valid;
+                    try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.WRITE)) {
+                        channel.truncate(valid);
+                    }
+                } else {
+                    writeIndex(segment);
+                }
+            }
+        }
+    }
+
+    private void readIndex(int segment) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(indexPath(segment)))) {
+            byte[] hash = new byte[HASH_BYTES];
+            while (true) {
+                try {
+                    in.readFully(hash);
+                } catch (EOFException e) {
+                    return;
+                }
+                String encoding = encoding(in.readByte());
+                long offset = in.readLong();
+                int length = in.readInt();
+                index.put(HexFormat.of().formatHex(hash), new Location(segment, offset, length, encoding));
+            }
+        }
+    }
+
+    /**
+     * Indexes the records of a segment and returns the length of its valid prefix; anything
+     * after it is a record torn by a crash.
+     */
+    private long scan(int segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (position + HEADER_BYTES <= size) {
+                header.clear();
+                readFully(channel, header, position);
+                if (header.getInt() != RECORD_MAGIC) {
+                    break;
+                }
+                byte[] hash = new byte[HASH_BYTES];
+                header.get(hash);
+                String encoding = encoding(header.get());
+                int length = header.getInt();
+                long end = position + HEADER_BYTES + length;
+                if (length < 0 || end > size) {
+                    break;
+                }
+                index.put(HexFormat.of().formatHex(hash), new Location(segment, position + HEADER_BYTES, length, encoding));
+                position = end;
+            }
+            return position;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    private static ByteBuffer header(String hash, String encoding, int length) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(RECORD_MAGIC)
+              .put(HexFormat.of().parseHex(hash))
+              .put(encodingCode(encoding))
+              .putInt(length)
+              .flip();
+        return header;
+    }
+
+    private static byte encodingCode(String encoding) {
+        for (int code = 0; code < ENCODINGS.length; code++) {
+            if (ENCODINGS[code].equals(encoding == null ? NONE : encoding)) {
+                return (byte) code;
+            }
+        }
+        throw new IllegalArgumentException("Unknown content encoding " + encoding);
+    }
+
+    private static String encoding(byte code) throws IOException {
+        if (code < 0 || code >= ENCODINGS.length) {
+            throw new IOException("Unknown content encoding code " + code);
+        }
+        return code == 0 ? null : ENCODINGS[code];
+    }
+
+    private List<Integer> sealedSegments() throws IOException {
+        return segmentIds().stream().filter(id -> id != activeId).toList();
+    }
+
+    private List<Integer> segmentIds() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                        .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                        .map(name -> Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                        .sorted()
+                        .toList();
+        }
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve("%010d%s".formatted(segment, SEGMENT_SUFFIX));
+    }
+
+    private Path indexPath(int segment) {
+        return directory.resolve("%010d%s".formatted(segment, INDEX_SUFFIX));
+    }
+}
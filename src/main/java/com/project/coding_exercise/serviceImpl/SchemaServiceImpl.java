@@ -1,31 +1,79 @@
 package com.project.coding_exercise.serviceImpl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.coding_exercise.cache.OpenApiParseCache;
+import com.project.coding_exercise.cache.ParsedSchema;
+import com.project.coding_exercise.cache.SchemaDiffCache;
+import com.project.coding_exercise.cache.SchemaResponseCache;
+import com.project.coding_exercise.db.dto.BatchUploadResponse;
+import com.project.coding_exercise.db.dto.BatchUploadResult;
+import com.project.coding_exercise.db.dto.RawSchemaContent;
+import com.project.coding_exercise.db.dto.SchemaCacheStats;
+import com.project.coding_exercise.db.dto.SchemaDiff;
 import com.project.coding_exercise.db.dto.SchemaResponse;
+import com.project.coding_exercise.db.dto.SchemaSearchHit;
+import com.project.coding_exercise.db.dto.SchemaUploadJob;
 import com.project.coding_exercise.db.dto.SchemaUploadRequest;
+import com.project.coding_exercise.db.dto.SchemaVersionPage;
+import com.project.coding_exercise.db.dto.SpooledUpload;
+import com.project.coding_exercise.db.dto.StoredBlob;
 import com.project.coding_exercise.db.mapper.ApplicationMapper;
 import com.project.coding_exercise.db.mapper.SchemaMapper;
 import com.project.coding_exercise.db.mapper.ServiceMapper;
 import com.project.coding_exercise.db.model.Application;
 import com.project.coding_exercise.db.model.Schema;
+import com.project.coding_exercise.db.model.SchemaDetails;
+import com.project.coding_exercise.service.SchemaRefUnavailableException;
 import com.project.coding_exercise.service.SchemaService;
+import com.project.coding_exercise.service.SchemaStorageService;
+import io.swagger.v3.oas.models.OpenAPI;
+import jakarta.annotation.PostConstruct;
 import io.swagger.v3.parser.OpenAPIV3Parser;
 import io.swagger.v3.parser.core.models.ParseOptions;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 @Service
 public class SchemaServiceImpl implements SchemaService {
 
+    private static final String JSON_MEDIA_TYPE = SchemaFormats.JSON_MEDIA_TYPE;
+    private static final String YAML_MEDIA_TYPE = SchemaFormats.YAML_MEDIA_TYPE;
+    private static final int MAX_VERSION_ALLOCATION_ATTEMPTS = 5;
+
     @Autowired
     private ApplicationMapper applicationMapper;
 
@@ -35,125 +83,943 @@ public class SchemaServiceImpl implements SchemaService {
     @Autowired
     private SchemaMapper schemaMapper;
 
-    @Value("${schema.storage.path:./schemas}")
-    private String storagePath;
+    @Autowired
+    private SchemaStorageService storageService;
+
+    @Autowired
+    private SchemaResponseCache schemaCache;
+
+    @Autowired
+    private OpenApiParseCache parseCache;
+
+    @Autowired
+    private SchemaBatchWriter batchWriter;
+
+    @Autowired
+    private ExecutorService schemaValidationExecutor;
+
+    @Autowired
+    private VersionAllocationLocks versionLocks;
+
+    @Autowired
+    private SchemaDiffCache diffCache;
+
+    @Autowired
+    private Executor schemaDiffExecutor;
+
+    @Value("${schema.diff.precompute:true}")
+    private boolean precomputeDiffs = true;
+
+    @Autowired
+    private SchemaSearchIndex searchIndex;
+
+    @Autowired
+    private SchemaUploadJobs uploadJobs;
+
+    @Autowired
+    private SchemaRefStore refStore;
+
+    @Autowired
+    private SchemaMetrics metrics;
+
+    @Autowired
+    private SchemaRenditions renditions;
+
+    @Autowired
+    private ExecutorService schemaUploadExecutor;
+
+    @Value("${schema.storage.segments.compact-on-startup:true}")
+    private boolean compactSegmentsOnStartup = true;
+
+    @Value("${schema.batch.max-files:500}")
+    private int maxBatchFiles = 500;
+
+    @Value("${schema.history.default-page-size:20}")
+    private int defaultHistoryPageSize = 20;
+
+    @Value("${schema.history.max-page-size:200}")
+    private int maxHistoryPageSize = 200;
+
+    // blobs never change, so the format sniffed from a blob holds for its hash forever
+    private final Cache<String, String> storedMediaTypes = Caffeine.newBuilder().maximumSize(100_000).build();
 
     @Override
     public SchemaResponse uploadSchema(SchemaUploadRequest request) throws Exception {
-        if (!validateOpenApiSpec(request.getFile())) {
+        SpooledUpload upload = storageService.spool(request.getFile().getInputStream());
+        try {
+            return uploadSchema(request, upload);
+        } finally {
+            storageService.discard(upload);
+        }
+    }
+
+    /**
+     * Reserves a slot in the bounded upload pool, spools the upload on the calling thread,
+     * since the multipart file does not outlive the request, and hands validation and
+     * persistence to the pool.
+     *
+     * @throws RejectedExecutionException when the upload queue is full; the body is not read
+     */
+    @Override
+    public SchemaUploadJob submitUpload(SchemaUploadRequest request) throws Exception {
+        if (!uploadJobs.tryReserveSlot()) {
+            throw new RejectedExecutionException("Upload queue is full");
+        }
+        SpooledUpload upload = null;
+        SchemaUploadJob job = null;
+        boolean handedOff = false;
+        try {
+            upload = storageService.spool(request.getFile().getInputStream());
+            SchemaUploadRequest queued = new SchemaUploadRequest();
+            queued.setApplicationName(request.getApplicationName());
+            queued.setServiceName(request.getServiceName());
+            job = uploadJobs.create(request.getApplicationName(), request.getServiceName());
+            SchemaUploadJob submitted = job;
+            SpooledUpload spooled = upload;
+            schemaUploadExecutor.execute(() -> runUploadJob(submitted, queued, spooled));
+            handedOff = true;
+            return job;
+        } finally {
+            if (!handedOff) {
+                if (job != null) {
+                    uploadJobs.remove(job);
+                }
+                if (upload != null) {
+                    storageService.discard(upload);
+                }
+                uploadJobs.releaseSlot();
+            }
+        }
+    }
+
+    @Override
+    public SchemaUploadJob getUploadJob(String jobId) {
+        return uploadJobs.get(jobId);
+    }
+
+    private void runUploadJob(SchemaUploadJob job, SchemaUploadRequest request, SpooledUpload upload) {
+        uploadJobs.running(job);
+        try {
+            uploadJobs.succeeded(job, uploadSchema(request, upload));
+        } catch (Exception e) {
+            uploadJobs.failed(job, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            storageService.discard(upload);
+            uploadJobs.releaseSlot();
+        }
+    }
+
+    private SchemaResponse uploadSchema(SchemaUploadRequest request, SpooledUpload upload) throws Exception {
+        String outcome = "failed";
+        try {
+            SchemaResponse response = metrics.time("total", () -> storeUpload(request, upload));
+            outcome = "stored";
+            return response;
+        } catch (IllegalArgumentException e) {
+            outcome = "invalid";
+            throw e;
+        } finally {
+            metrics.uploaded(request.getApplicationName(), outcome, upload.getSize());
+        }
+    }
+
+    /**
+     * Validates and stores one upload, timing each stage separately so slow uploads can be
+     * attributed to parsing, a lookup, the blob write, waiting for the version lock or the
+     * insert.
+     */
+    private SchemaResponse storeUpload(SchemaUploadRequest request, SpooledUpload upload) throws Exception {
+        if (!metrics.time("validate", () -> isValidOpenApiSpec(upload))) {
+            metrics.validationFailed();
             throw new IllegalArgumentException("Invalid OpenAPI specification");
         }
 
-        Application application = applicationMapper.findByName(request.getApplicationName());
-        if (application == null) {
-            application = new Application(request.getApplicationName());
+        Application application = metrics.time("application-lookup", () -> findOrCreateApplication(request.getApplicationName()));
+        com.project.coding_exercise.db.model.Service service = hasServiceName(request.getServiceName())
+                ? metrics.time("service-lookup", () -> findOrCreateService(application, request.getServiceName()))
+                : null;
+        Long serviceId = service != null ? service.getId() : null;
+        String serviceName = service != null ? service.getName() : null;
+        String baseFilePath = metrics.time("base-lookup", () -> previousFilePath(application.getId(), serviceId));
+        String filePath = metrics.time("blob-write", () -> storageService.commit(upload, baseFilePath));
+
+        Schema schema;
+        Lock lock = versionLocks.lockFor(application.getName(), serviceName);
+        metrics.time("version-lock", () -> {
+            lock.lock();
+            return null;
+        });
+        try {
+            schema = metrics.time("version-insert", () -> insertNextVersion(application.getId(), serviceId, filePath));
+        } finally {
+            lock.unlock();
+        }
+        metrics.time("publish", () -> {
+            schemaCache.invalidateLatest(application.getName(), serviceName);
+            indexSchema(application.getName(), serviceName, schema);
+            if (serviceName != null) {
+                schedulePreviousVersionDiff(application.getName(), serviceName, schema.getVersion());
+            }
+            return null;
+        });
+
+        return createSchemaResponse(schema, application.getName(), serviceName, filePath);
+    }
+
+    /**
+     * Allocates the next version and inserts it. Callers hold the version lock of the key,
+     * so within this process the read of the current maximum cannot interleave with another
+     * insert; a duplicate version can only come from another process sharing the database,
+     * in which case the allocation is retried against the new maximum.
+     */
+    private Schema insertNextVersion(Long applicationId, Long serviceId, String filePath) {
+        for (int attempt = 1; ; attempt++) {
+            Integer nextVersion = schemaMapper.findMaxVersionByApplicationAndService(applicationId, serviceId) + 1;
+            Schema schema = new Schema(applicationId, serviceId, nextVersion, filePath);
+            schema.setUploadedAt(LocalDateTime.now());
+            try {
+                schemaMapper.insert(schema);
+                return schema;
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_VERSION_ALLOCATION_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Blob of the current latest version, offered to the store as the delta base of the
+     * version being uploaded.
+     */
+    private String previousFilePath(Long applicationId, Long serviceId) {
+        Schema previous = schemaMapper.findLatestByApplicationAndService(applicationId, serviceId);
+        return previous != null ? previous.getFilePath() : null;
+    }
+
+    private Application findOrCreateApplication(String applicationName) {
+        Application application = applicationMapper.findByName(applicationName);
+        if (application != null) {
+            return application;
+        }
+        application = new Application(applicationName);
+        try {
             applicationMapper.insert(application);
+            return application;
+        } catch (DuplicateKeyException e) {
+            return applicationMapper.findByName(applicationName);
         }
+    }
 
-        com.project.coding_exercise.db.model.Service service = null;
-        if (request.getServiceName() != null && !request.getServiceName().trim().isEmpty()) {
-            service = serviceMapper.findByApplicationIdAndName(application.getId(), request.getServiceName());
-            if (service == null) {
-                service = new com.project.coding_exercise.db.model.Service(application.getId(), request.getServiceName());
-                serviceMapper.insert(service);
+    private com.project.coding_exercise.db.model.Service findOrCreateService(Application application, String serviceName) {
+        com.project.coding_exercise.db.model.Service service = serviceMapper.findByApplicationIdAndName(application.getId(), serviceName);
+        if (service != null) {
+            return service;
+        }
+        service = new com.project.coding_exercise.db.model.Service(application.getId(), serviceName);
+        try {
+            serviceMapper.insert(service);
+            return service;
+        } catch (DuplicateKeyException e) {
+            return serviceMapper.findByApplicationIdAndName(application.getId(), serviceName);
+        }
+    }
+
+    /**
+     * Uploads many schemas of one application in a single request. Each file (or zip entry)
+     * is registered as the service named after its file name without extension. Files are
+     * spooled one after another, validated in parallel, and the metadata of every valid file
+     * is written in one transaction; invalid files are reported without failing the batch.
+     */
+    @Override
+    public BatchUploadResponse uploadSchemas(String applicationName, List<MultipartFile> files, MultipartFile archive) throws Exception {
+        List<BatchUploadResult> results = new ArrayList<>();
+        List<SpooledUpload> uploads = new ArrayList<>();
+        try {
+            if (files != null) {
+                for (MultipartFile file : files) {
+                    try (InputStream in = file.getInputStream()) {
+                        spoolBatchEntry(file.getOriginalFilename(), in, results, uploads);
+                    }
+                }
+            }
+            if (archive != null && !archive.isEmpty()) {
+                try (ZipInputStream zip = new ZipInputStream(archive.getInputStream())) {
+                    ZipEntry entry;
+                    while ((entry = zip.getNextEntry()) != null) {
+                        String name = Paths.get(entry.getName()).getFileName().toString();
+                        if (!entry.isDirectory() && !name.startsWith(".") && !entry.getName().startsWith("__MACOSX")) {
+                            spoolBatchEntry(name, StreamUtils.nonClosing(zip), results, uploads);
+                        }
+                    }
+                }
+            }
+
+            List<Future<Boolean>> verdicts = new ArrayList<>(uploads.size());
+            for (SpooledUpload upload : uploads) {
+                verdicts.add(upload != null ? schemaValidationExecutor.submit(() -> isValidOpenApiSpec(upload)) : null);
+            }
+
+            List<BatchUploadResult> accepted = new ArrayList<>();
+            List<SpooledUpload> acceptedUploads = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                BatchUploadResult result = results.get(i);
+                if (verdicts.get(i) == null) {
+                    continue;
+                }
+                boolean valid;
+                try {
+                    valid = verdicts.get(i).get();
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof SchemaRefUnavailableException unavailable)) {
+                        throw e;
+                    }
+                    result.setError(unavailable.getMessage());
+                    metrics.uploaded(applicationName, "failed", uploads.get(i).getSize());
+                    continue;
+                }
+                if (!valid) {
+                    result.setError("Invalid OpenAPI specification");
+                    metrics.validationFailed();
+                    metrics.uploaded(applicationName, "invalid", uploads.get(i).getSize());
+                    continue;
+                }
+                accepted.add(result);
+                acceptedUploads.add(uploads.get(i));
+            }
+
+            if (!accepted.isEmpty()) {
+                Map<String, String> bases = new HashMap<>();
+                for (SchemaDetails latest : schemaMapper.findLatestOfEachServiceByApplicationName(applicationName)) {
+                    bases.put(latest.getServiceName(), latest.getFilePath());
+                }
+                Set<String> serviceNames = new HashSet<>();
+                for (int i = 0; i < accepted.size(); i++) {
+                    BatchUploadResult result = accepted.get(i);
+                    serviceNames.add(result.getServiceName());
+                    result.setFilePath(storageService.commit(acceptedUploads.get(i), bases.get(result.getServiceName())));
+                }
+                List<Schema> schemas;
+                List<Lock> locks = versionLocks.locksFor(applicationName, serviceNames);
+                locks.forEach(Lock::lock);
+                try {
+                    schemas = batchWriter.register(applicationName, accepted);
+                } finally {
+                    locks.forEach(Lock::unlock);
+                }
+                for (int i = 0; i < accepted.size(); i++) {
+                    BatchUploadResult result = accepted.get(i);
+                    result.setSuccess(true);
+                    metrics.uploaded(applicationName, "stored", acceptedUploads.get(i).getSize());
+                    schemaCache.invalidateLatest(applicationName, result.getServiceName());
+                    indexSchema(applicationName, result.getServiceName(), schemas.get(i));
+                    schedulePreviousVersionDiff(applicationName, result.getServiceName(), result.getVersion());
+                }
+            }
+        } finally {
+            for (SpooledUpload upload : uploads) {
+                if (upload != null) {
+                    storageService.discard(upload);
+                }
             }
         }
 
-        Integer nextVersion = schemaMapper.findMaxVersionByApplicationAndService(application.getId(), service != null ? service.getId() : null) + 1;
-        String directoryPath = createDirectoryStructure(application.getName(), service != null ? service.getName() : null, nextVersion);
-        
-        String fileName = request.getFile().getOriginalFilename();
-        String filePath = directoryPath + File.separator + fileName;
-        
-        File targetFile = new File(filePath);
-        if (!targetFile.getParentFile().exists()) {
-            targetFile.getParentFile().mkdirs();
+        BatchUploadResponse response = new BatchUploadResponse();
+        response.setApplicationName(applicationName);
+        response.setResults(results);
+        response.setSucceeded((int) results.stream().filter(BatchUploadResult::isSuccess).count());
+        response.setFailed(results.size() - response.getSucceeded());
+        return response;
+    }
+
+    private void spoolBatchEntry(String fileName, InputStream content, List<BatchUploadResult> results,
+                                 List<SpooledUpload> uploads) throws IOException {
+        if (results.size() >= maxBatchFiles) {
+            throw new IllegalArgumentException("Batch exceeds the maximum of " + maxBatchFiles + " files");
         }
-        request.getFile().transferTo(targetFile);
+        BatchUploadResult result = new BatchUploadResult();
+        result.setFileName(fileName);
+        result.setServiceName(serviceNameOf(fileName));
+        results.add(result);
 
-        Schema schema = new Schema(application.getId(), service != null ? service.getId() : null, nextVersion, filePath);
-        schema.setUploadedAt(LocalDateTime.now());
-        schemaMapper.insert(schema);
+        if (result.getServiceName().isEmpty()) {
+            result.setError("Cannot derive a service name from file name: " + fileName);
+            uploads.add(null);
+            return;
+        }
+        try {
+            uploads.add(storageService.spool(content));
+        } catch (IllegalArgumentException e) {
+            result.setError(e.getMessage());
+            uploads.add(null);
+        }
+    }
 
-        return createSchemaResponse(schema, application.getName(), service != null ? service.getName() : null, filePath);
+    private static String serviceNameOf(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        String name = Paths.get(fileName).getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        return (extension > 0 ? name.substring(0, extension) : name).trim();
     }
 
     @Override
     public SchemaResponse getLatestSchema(String applicationName, String serviceName) throws Exception {
+        SchemaResponse cached = schemaCache.getLatest(applicationName, serviceName);
+        if (cached != null) {
+            metrics.cacheRequest(applicationName, true);
+            return cached;
+        }
+        long stamp = schemaCache.latestStamp();
+
+        Schema schema = afterCacheMiss(applicationName, () -> findLatestSchema(applicationName, serviceName));
+        String content = storageService.readContent(schema.getFilePath());
+        SchemaResponse response = createSchemaResponse(schema, applicationName, serviceName, content);
+        schemaCache.putLatest(applicationName, serviceName, response, stamp);
+        return response;
+    }
+
+    @Override
+    public SchemaResponse getSchemaByVersion(String applicationName, String serviceName, Integer version) throws Exception {
+        SchemaResponse cached = schemaCache.getVersion(applicationName, serviceName, version);
+        if (cached != null) {
+            metrics.cacheRequest(applicationName, true);
+            return cached;
+        }
+
+        Schema schema = afterCacheMiss(applicationName, () -> findSchemaByVersion(applicationName, serviceName, version));
+        String content = storageService.readContent(schema.getFilePath());
+        SchemaResponse response = createSchemaResponse(schema, applicationName, serviceName, content);
+        schemaCache.putVersion(applicationName, serviceName, response);
+        return response;
+    }
+
+    @Override
+    public SchemaResponse getLatestSchemaMetadata(String applicationName, String serviceName) throws Exception {
+        SchemaResponse cached = schemaCache.getLatest(applicationName, serviceName);
+        if (cached != null) {
+            metrics.cacheRequest(applicationName, true);
+            return cached;
+        }
+        return createSchemaResponse(afterCacheMiss(applicationName, () -> findLatestSchema(applicationName, serviceName)),
+                applicationName, serviceName, null);
+    }
+
+    /**
+     * Looks a schema up after a read cache miss and records the miss. The miss is tagged with
+     * the application only once the lookup has found it, so requests for made-up application
+     * names cannot add metric series.
+     */
+    private Schema afterCacheMiss(String applicationName, SchemaMetrics.StageCall<Schema> lookup) throws Exception {
+        Schema schema;
+        try {
+            schema = lookup.call();
+        } catch (Exception e) {
+            metrics.cacheRequest(null, false);
+            throw e;
+        }
+        metrics.cacheRequest(applicationName, false);
+        return schema;
+    }
+
+    @Override
+    public SchemaResponse getSchemaMetadataByVersion(String applicationName, String serviceName, Integer version) throws Exception {
+        SchemaResponse cached = schemaCache.getVersion(applicationName, serviceName, version);
+        if (cached != null) {
+            metrics.cacheRequest(applicationName, true);
+            return cached;
+        }
+        return createSchemaResponse(afterCacheMiss(applicationName, () -> findSchemaByVersion(applicationName, serviceName, version)),
+                applicationName, serviceName, null);
+    }
+
+    @Override
+    public RawSchemaContent getLatestRawSchema(String applicationName, String serviceName) throws Exception {
+        return createRawSchemaContent(getLatestSchemaMetadata(applicationName, serviceName));
+    }
+
+    @Override
+    public RawSchemaContent getRawSchemaByVersion(String applicationName, String serviceName, Integer version) throws Exception {
+        return createRawSchemaContent(getSchemaMetadataByVersion(applicationName, serviceName, version));
+    }
+
+    @Override
+    public RawSchemaContent getLatestRawSchemaRendition(String applicationName, String serviceName, String mediaType) throws Exception {
+        return createRawSchemaRendition(getLatestSchemaMetadata(applicationName, serviceName), mediaType);
+    }
+
+    @Override
+    public RawSchemaContent getRawSchemaRenditionByVersion(String applicationName, String serviceName, Integer version,
+                                                           String mediaType) throws Exception {
+        return createRawSchemaRendition(getSchemaMetadataByVersion(applicationName, serviceName, version), mediaType);
+    }
+
+    @Override
+    public RawSchemaContent getLatestRawSchemaFragment(String applicationName, String serviceName, String pointer,
+                                                       String mediaType) throws Exception {
+        SchemaFragments.checkPointer(pointer);
+        return createRawSchemaFragment(getLatestSchemaMetadata(applicationName, serviceName), pointer, mediaType);
+    }
+
+    @Override
+    public RawSchemaContent getRawSchemaFragmentByVersion(String applicationName, String serviceName, Integer version,
+                                                          String pointer, String mediaType) throws Exception {
+        SchemaFragments.checkPointer(pointer);
+        return createRawSchemaFragment(getSchemaMetadataByVersion(applicationName, serviceName, version), pointer, mediaType);
+    }
+
+    /**
+     * The schema with its content in {@code mediaType}, converted through a cached
+     * {@link SchemaRenditions rendition} when it was uploaded in the other format. The
+     * given response, which may be the cached one, is never modified.
+     */
+    @Override
+    public SchemaResponse renderSchema(SchemaResponse response, String mediaType) throws Exception {
+        String stored = detectContentMediaType(response.getContent());
+        if (mediaType == null || mediaType.equals(stored)) {
+            return response;
+        }
+        StoredBlob rendition = renditions.render(response.getFilePath(), stored, mediaType);
+        SchemaResponse rendered = new SchemaResponse();
+        rendered.setId(response.getId());
+        rendered.setApplicationName(response.getApplicationName());
+        rendered.setServiceName(response.getServiceName());
+        rendered.setVersion(response.getVersion());
+        rendered.setFilePath(response.getFilePath());
+        rendered.setUploadedAt(response.getUploadedAt());
+        rendered.setContent(rendition.getPath() != null
+                ? Files.readString(rendition.getPath(), StandardCharsets.UTF_8)
+                : new String(rendition.getContent(), StandardCharsets.UTF_8));
+        return rendered;
+    }
+
+    /**
+     * Pages through a version history newest first. The cursor is the last version of the
+     * previous page, so each page is one bounded index range read and only metadata is
+     * returned; no schema file is opened.
+     */
+    @Override
+    public SchemaVersionPage getVersionHistory(String applicationName, String serviceName, Integer cursor, Integer limit) throws Exception {
+        int pageSize = Math.min(limit != null ? limit : defaultHistoryPageSize, maxHistoryPageSize);
         Application application = applicationMapper.findByName(applicationName);
         if (application == null) {
             throw new IllegalArgumentException("Application not found: " + applicationName);
         }
-
-        com.project.coding_exercise.db.model.Service service = null;
-        if (serviceName != null && !serviceName.trim().isEmpty()) {
-            service = serviceMapper.findByApplicationIdAndName(application.getId(), serviceName);
+        Long serviceId = null;
+        if (hasServiceName(serviceName)) {
+            com.project.coding_exercise.db.model.Service service = serviceMapper.findByApplicationIdAndName(application.getId(), serviceName);
             if (service == null) {
                 throw new IllegalArgumentException("Service not found: " + serviceName);
             }
+            serviceId = service.getId();
         }
 
-        Schema schema = schemaMapper.findLatestByApplicationAndService(application.getId(), service != null ? service.getId() : null);
-        if (schema == null) {
-            throw new IllegalArgumentException("No schema found for application: " + applicationName + 
-                (serviceName != null ? " and service: " + serviceName : ""));
+        List<Schema> schemas = schemaMapper.findVersionPage(application.getId(), serviceId,
+                cursor != null ? cursor : Integer.MAX_VALUE, pageSize + 1);
+        boolean hasMore = schemas.size() > pageSize;
+        if (hasMore) {
+            schemas = schemas.subList(0, pageSize);
         }
 
-        String content = Files.readString(Paths.get(schema.getFilePath()));
-        return createSchemaResponse(schema, applicationName, serviceName, content);
+        SchemaVersionPage page = new SchemaVersionPage();
+        page.setApplicationName(applicationName);
+        page.setServiceName(serviceName);
+        page.setLimit(pageSize);
+        for (Schema schema : schemas) {
+            page.getVersions().add(createSchemaResponse(schema, applicationName, serviceName, null));
+        }
+        page.setNextCursor(hasMore ? schemas.get(schemas.size() - 1).getVersion() : null);
+        return page;
     }
 
+    /**
+     * Structural diff between two versions of a service. {@code to} defaults to the latest
+     * version and {@code from} to the version before {@code to}. Diffs are memoized by the
+     * pair of schema ids, and the parsed models come from the parse cache.
+     */
     @Override
-    public SchemaResponse getSchemaByVersion(String applicationName, String serviceName, Integer version) throws Exception {
-        Application application = applicationMapper.findByName(applicationName);
-        if (application == null) {
-            throw new IllegalArgumentException("Application not found: " + applicationName);
+    public SchemaDiff getSchemaDiff(String applicationName, String serviceName, Integer fromVersion, Integer toVersion) throws Exception {
+        Schema to = toVersion != null
+                ? findSchemaByVersion(applicationName, serviceName, toVersion)
+                : findLatestSchema(applicationName, serviceName);
+        int from = fromVersion != null ? fromVersion : to.getVersion() - 1;
+        if (from < 1) {
+            throw new IllegalArgumentException("No earlier version to compare with version " + to.getVersion());
         }
+        Schema fromSchema = findSchemaByVersion(applicationName, serviceName, from);
+        return diffCache.get(fromSchema.getId(), to.getId(), () -> computeDiff(applicationName, serviceName, fromSchema, to));
+    }
 
-        com.project.coding_exercise.db.model.Service service = null;
-        if (serviceName != null && !serviceName.trim().isEmpty()) {
-            service = serviceMapper.findByApplicationIdAndName(application.getId(), serviceName);
-            if (service == null) {
-                throw new IllegalArgumentException("Service not found: " + serviceName);
+    /**
+     * Finds the latest schemas that match every given criterion, using the search index
+     * only. A path together with a method matches that operation.
+     */
+    @Override
+    public List<SchemaSearchHit> searchSchemas(String path, String method, String operationId, String tag, String component) {
+        List<String> terms = new ArrayList<>();
+        if (hasText(path) && hasText(method)) {
+            terms.add(SchemaSearchIndex.operationTerm(method, path));
+        } else if (hasText(path)) {
+            terms.add(SchemaSearchIndex.pathTerm(path));
+        } else if (hasText(method)) {
+            terms.add(SchemaSearchIndex.methodTerm(method));
+        }
+        if (hasText(operationId)) {
+            terms.add(SchemaSearchIndex.operationIdTerm(operationId.trim()));
+        }
+        if (hasText(tag)) {
+            terms.add(SchemaSearchIndex.tagTerm(tag.trim()));
+        }
+        if (hasText(component)) {
+            terms.add(SchemaSearchIndex.componentTerm(component.trim()));
+        }
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("At least one search criterion is required");
+        }
+        return searchIndex.search(terms);
+    }
+
+    /**
+     * Indexes the latest schema of every application and service from the database and
+     * blob store. Models are parsed in parallel on the validation pool; a schema that
+     * cannot be read is skipped. Versions already indexed by a concurrent upload win.
+     */
+    @Override
+    public int rebuildSearchIndex() throws Exception {
+        List<SchemaDetails> latest = schemaMapper.findAllLatest();
+        List<Future<OpenAPI>> models = new ArrayList<>(latest.size());
+        for (SchemaDetails schema : latest) {
+            models.add(schemaValidationExecutor.submit(() -> storedModel(schema)));
+        }
+        int indexed = 0;
+        for (int i = 0; i < latest.size(); i++) {
+            SchemaDetails schema = latest.get(i);
+            try {
+                searchIndex.index(schema.getApplicationName(), schema.getServiceName(), schema.getVersion(), models.get(i).get());
+                indexed++;
+            } catch (ExecutionException e) {
+                // unreadable blob; the schema becomes searchable with its next upload
             }
         }
+        return indexed;
+    }
 
-        Schema schema = schemaMapper.findByApplicationServiceAndVersion(application.getId(), service != null ? service.getId() : null, version);
-        if (schema == null) {
-            throw new IllegalArgumentException("Schema not found for application: " + applicationName + 
-                (serviceName != null ? " and service: " + serviceName : "") + " version: " + version);
+    /**
+     * Loads the latest schema of every service, and of every application, into the read
+     * cache, reading the blobs in parallel on the validation pool. A schema that cannot be
+     * read is skipped, and a latest pointer invalidated by a concurrent upload is not
+     * re-installed.
+     */
+    @Override
+    public int warmLatestSchemas() throws Exception {
+        long stamp = schemaCache.latestStamp();
+        List<SchemaDetails> latest = schemaMapper.findAllLatest();
+        List<Future<String>> contents = new ArrayList<>(latest.size());
+        for (SchemaDetails schema : latest) {
+            contents.add(schemaValidationExecutor.submit(() -> storageService.readContent(schema.getFilePath())));
         }
 
-        String content = Files.readString(Paths.get(schema.getFilePath()));
-        return createSchemaResponse(schema, applicationName, serviceName, content);
+        // the application-wide latest is the highest version among the latest of its services
+        Map<String, Integer> applicationLatest = new HashMap<>();
+        for (int i = 0; i < latest.size(); i++) {
+            Integer current = applicationLatest.get(latest.get(i).getApplicationName());
+            if (current == null || latest.get(current).getVersion() < latest.get(i).getVersion()) {
+                applicationLatest.put(latest.get(i).getApplicationName(), i);
+            }
+        }
+
+        int warmed = 0;
+        for (int i = 0; i < latest.size(); i++) {
+            SchemaDetails schema = latest.get(i);
+            String content;
+            try {
+                content = contents.get(i).get();
+            } catch (ExecutionException e) {
+                // unreadable blob; the first read loads it as before
+                continue;
+            }
+            if (schema.getServiceName() != null) {
+                schemaCache.putLatest(schema.getApplicationName(), schema.getServiceName(),
+                        createSchemaResponse(schema, schema.getApplicationName(), schema.getServiceName(), content), stamp);
+                warmed++;
+            }
+            if (applicationLatest.get(schema.getApplicationName()) == i) {
+                schemaCache.putLatest(schema.getApplicationName(), null,
+                        createSchemaResponse(schema, schema.getApplicationName(), null, content), stamp);
+                warmed++;
+            }
+        }
+        return warmed;
+    }
+
+    /**
+     * Compacts storage segments while the context starts, before the server accepts uploads,
+     * because compaction must not run while blobs are being committed.
+     */
+    @PostConstruct
+    public void compactSegmentsOnStartup() throws IOException {
+        if (compactSegmentsOnStartup) {
+            storageService.compactSegments(schemaMapper::findAllFilePaths);
+        }
+    }
+
+    @Override
+    public SchemaCacheStats getCacheStats() {
+        return schemaCache.stats();
     }
 
     @Override
     public boolean validateOpenApiSpec(MultipartFile file) throws Exception {
+        SpooledUpload upload = storageService.spool(file.getInputStream());
+        try {
+            return isValidOpenApiSpec(upload);
+        } finally {
+            storageService.discard(upload);
+        }
+    }
+
+    private boolean isValidOpenApiSpec(SpooledUpload upload) {
+        return parseCache.get(upload.getContentHash(), hash -> parse(upload)).isValid();
+    }
+
+    private ParsedSchema parse(SpooledUpload upload) {
+        try {
+            return parse(Files.readString(upload.getTempFile(), StandardCharsets.UTF_8), upload.getSize());
+        } catch (SchemaRefUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            return new ParsedSchema(false, List.of(String.valueOf(e.getMessage())), null, upload.getSize());
+        }
+    }
+
+    /**
+     * Parses and resolves a document. Remote {@code $ref}s are first pointed at their pinned
+     * copies in the {@link SchemaRefStore}, so resolution reads local files only. A ref that
+     * cannot be fetched is thrown rather than returned as an invalid result, which would be
+     * cached for the content hash.
+     */
+    private ParsedSchema parse(String content, long size) {
         try {
             OpenAPIV3Parser parser = new OpenAPIV3Parser();
             ParseOptions options = new ParseOptions();
             options.setResolve(true);
-            
-            String content = new String(file.getInputStream().readAllBytes());
-            SwaggerParseResult result = parser.readContents(content, null, options);
-            return result.getOpenAPI() != null && result.getMessages().isEmpty();
+
+            SwaggerParseResult result = parser.readContents(refStore.localize(content), null, options);
+            boolean valid = result.getOpenAPI() != null && (result.getMessages() == null || result.getMessages().isEmpty());
+            return new ParsedSchema(valid, result.getMessages(), valid ? result.getOpenAPI() : null, size);
+        } catch (SchemaRefUnavailableException e) {
+            throw e;
         } catch (Exception e) {
-            return false;
+            return new ParsedSchema(false, List.of(String.valueOf(e.getMessage())), null, size);
+        }
+    }
+
+    /**
+     * Parsed model of a stored schema. Blobs are keyed by their content hash, which is the
+     * same key uploads use, so a freshly uploaded version is usually already parsed.
+     */
+    private OpenAPI storedModel(Schema schema) {
+        ParsedSchema parsed = parseCache.get(schema.getFilePath(), key -> {
+            try {
+                String content = storageService.readContent(schema.getFilePath());
+                // weighed like an upload, by its UTF-8 size rather than its length in chars
+                return parse(content, content.getBytes(StandardCharsets.UTF_8).length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (parsed.getOpenAPI() == null) {
+            throw new IllegalStateException("Stored schema " + schema.getId() + " is not a valid OpenAPI document");
         }
+        return parsed.getOpenAPI();
+    }
+
+    private SchemaDiff computeDiff(String applicationName, String serviceName, Schema from, Schema to) {
+        SchemaDiff diff = OpenApiDiff.compare(storedModel(from), storedModel(to));
+        diff.setApplicationName(applicationName);
+        diff.setServiceName(serviceName);
+        diff.setFromVersion(from.getVersion());
+        diff.setToVersion(to.getVersion());
+        return diff;
     }
 
-    private String createDirectoryStructure(String applicationName, String serviceName, Integer version) throws IOException {
-        String absoluteStoragePath = new File(storagePath).getAbsolutePath();
-        String basePath = absoluteStoragePath + File.separator + applicationName;
-        if (serviceName != null && !serviceName.trim().isEmpty()) {
-            basePath += File.separator + serviceName;
+    private void indexSchema(String applicationName, String serviceName, Schema schema) {
+        try {
+            searchIndex.index(applicationName, serviceName, schema.getVersion(), storedModel(schema));
+        } catch (RuntimeException e) {
+            // the upload itself succeeded; the schema is picked up by the next index rebuild
+        }
+    }
+
+    /**
+     * Queues the diff against the previous version so "what changed in the latest release"
+     * is already cached when it is asked for. Best effort: failures are ignored and the
+     * diff is computed on demand instead.
+     */
+    private void schedulePreviousVersionDiff(String applicationName, String serviceName, Integer version) {
+        if (!precomputeDiffs || version == null || version < 2) {
+            return;
+        }
+        schemaDiffExecutor.execute(() -> {
+            try {
+                getSchemaDiff(applicationName, serviceName, version - 1, version);
+            } catch (Exception ignored) {
+                // computed on demand instead
+            }
+        });
+    }
+
+    private Schema findLatestSchema(String applicationName, String serviceName) {
+        SchemaDetails details = hasServiceName(serviceName)
+                ? schemaMapper.findLatestByApplicationNameAndServiceName(applicationName, serviceName)
+                : schemaMapper.findLatestByApplicationName(applicationName);
+        return requireSchema(details, applicationName, serviceName,
+                "No schema found for application: " + applicationName + 
+                (serviceName != null ? " and service: " + serviceName : ""));
+    }
+
+    private Schema findSchemaByVersion(String applicationName, String serviceName, Integer version) {
+        SchemaDetails details = hasServiceName(serviceName)
+                ? schemaMapper.findByApplicationNameServiceNameAndVersion(applicationName, serviceName, version)
+                : schemaMapper.findByApplicationNameAndVersion(applicationName, version);
+        return requireSchema(details, applicationName, serviceName,
+                "Schema not found for application: " + applicationName + 
+                (serviceName != null ? " and service: " + serviceName : "") + " version: " + version);
+    }
+
+    /**
+     * Turns the outer-joined lookup row into the same not-found reasons the separate
+     * application, service and schema lookups used to give.
+     */
+    private static Schema requireSchema(SchemaDetails details, String applicationName, String serviceName, String schemaNotFound) {
+        if (details == null) {
+            throw new IllegalArgumentException("Application not found: " + applicationName);
+        }
+        if (hasServiceName(serviceName) && details.getMatchedServiceId() == null) {
+            throw new IllegalArgumentException("Service not found: " + serviceName);
+        }
+        if (details.getId() == null) {
+            throw new IllegalArgumentException(schemaNotFound);
+        }
+        return details;
+    }
+
+    private static boolean hasServiceName(String serviceName) {
+        return hasText(serviceName);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private RawSchemaContent createRawSchemaContent(SchemaResponse metadata) throws IOException {
+        return createRawSchemaContent(metadata, detectMediaType(metadata.getFilePath()));
+    }
+
+    private RawSchemaContent createRawSchemaContent(SchemaResponse metadata, String mediaType) throws IOException {
+        RawSchemaContent raw = new RawSchemaContent();
+        raw.setId(metadata.getId());
+        raw.setVersion(metadata.getVersion());
+        raw.setContentHash(SchemaStorageServiceImpl.isContentHash(metadata.getFilePath()) ? metadata.getFilePath() : null);
+        raw.setContentEncoding(storageService.storedEncoding(metadata.getFilePath()));
+        raw.setMediaType(mediaType);
+        raw.setBlobOpener(() -> storageService.openBlob(metadata.getFilePath()));
+        return raw;
+    }
+
+    /**
+     * The stored file when it already is in {@code mediaType}, its rendition otherwise. A
+     * rendition's ETag is the content hash qualified by the format and the output revision.
+     */
+    private RawSchemaContent createRawSchemaRendition(SchemaResponse metadata, String mediaType) throws IOException {
+        String stored = detectMediaType(metadata.getFilePath());
+        if (stored.equals(mediaType)) {
+            return createRawSchemaContent(metadata, stored);
+        }
+        RawSchemaContent raw = new RawSchemaContent();
+        raw.setId(metadata.getId());
+        raw.setVersion(metadata.getVersion());
+        raw.setContentHash(SchemaStorageServiceImpl.isContentHash(metadata.getFilePath())
+                ? metadata.getFilePath() + "-" + SchemaFormats.extension(mediaType) + "-v" + SchemaFormats.OUTPUT_REVISION
+                : null);
+        raw.setMediaType(mediaType);
+        raw.setBlobOpener(() -> renditions.render(metadata.getFilePath(), stored, mediaType));
+        return raw;
+    }
+
+    /**
+     * Extracts the subtree at {@code pointer} with a streaming parser, from the cached
+     * content when the read cache holds the schema and from the blob otherwise. Only the
+     * fragment is buffered, in {@code targetMediaType} or else the stored format. Its ETag
+     * is derived from the stored file, the pointer, the format and the output revision, so
+     * it is known before anything is extracted.
+     */
+    private RawSchemaContent createRawSchemaFragment(SchemaResponse metadata, String pointer, String targetMediaType) throws IOException {
+        String mediaType = metadata.getContent() != null
+                ? detectContentMediaType(metadata.getContent())
+                : detectMediaType(metadata.getFilePath());
+        String fragmentMediaType = targetMediaType != null ? targetMediaType : mediaType;
+
+        RawSchemaContent raw = new RawSchemaContent();
+        raw.setId(metadata.getId());
+        raw.setVersion(metadata.getVersion());
+        raw.setContentHash(HexFormat.of().formatHex(sha256(
+                (metadata.getFilePath() + "\n" + pointer + "\n" + fragmentMediaType + "\n" + SchemaFormats.OUTPUT_REVISION)
+                        .getBytes(StandardCharsets.UTF_8))));
+        raw.setMediaType(fragmentMediaType);
+        raw.setBlobOpener(() -> {
+            byte[] fragment;
+            try (Reader document = metadata.getContent() != null
+                    ? new StringReader(metadata.getContent())
+                    : new InputStreamReader(storageService.openContent(metadata.getFilePath()), StandardCharsets.UTF_8)) {
+                fragment = SchemaFragments.extract(document, mediaType, pointer, fragmentMediaType);
+            }
+            if (fragment == null) {
+                throw new IllegalArgumentException("Nothing found at " + pointer + " in version " + metadata.getVersion());
+            }
+            return new StoredBlob(fragment);
+        });
+        return raw;
+    }
+
+    /**
+     * JSON documents start with an object; anything else the parser accepted is YAML.
+     * Only the first non-whitespace byte is read, once per blob.
+     */
+    private String detectMediaType(String filePath) throws IOException {
+        String known = storedMediaTypes.getIfPresent(filePath);
+        if (known != null) {
+            return known;
+        }
+        String mediaType;
+        try (InputStream in = storageService.openContent(filePath)) {
+            int b;
+            do {
+                b = in.read();
+            } while (b != -1 && Character.isWhitespace(b));
+            mediaType = b == '{' ? JSON_MEDIA_TYPE : YAML_MEDIA_TYPE;
+        }
+        if (SchemaStorageServiceImpl.isContentHash(filePath)) {
+            storedMediaTypes.put(filePath, mediaType);
+        }
+        return mediaType;
+    }
+
+    private static String detectContentMediaType(CharSequence content) {
+        int i = 0;
+        while (i < content.length() && Character.isWhitespace(content.charAt(i))) {
+            i++;
+        }
+        return i < content.length() && content.charAt(i) == '{' ? JSON_MEDIA_TYPE : YAML_MEDIA_TYPE;
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        basePath += File.separator + version;
-        
-        Path path = Paths.get(basePath);
-        Files.createDirectories(path);
-        return basePath;
     }
 
     private SchemaResponse createSchemaResponse(Schema schema, String applicationName, String serviceName, String content) {
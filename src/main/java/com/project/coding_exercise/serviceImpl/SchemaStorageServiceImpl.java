@@ -0,0 +1,468 @@
+package com.project.coding_exercise.serviceImpl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.coding_exercise.db.dto.SpooledUpload;
+import com.project.coding_exercise.db.dto.StoredBlob;
+import com.project.coding_exercise.service.SchemaStorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed blob store. Every upload is stored once under its SHA-256 hash
+ * ({@code {storagePath}/blobs/{first two hex chars}/{hash}}), and {@code schemas.file_path}
+ * holds that hash, so identical specs share a single file no matter how many versions
+ * reference them. Rows written before the blob store existed still hold absolute file
+ * paths and are resolved as-is.
+ * <p>
+ * With {@code schema.storage.compression=gzip} new blobs are written gzip-compressed as
+ * {@code {hash}.gz}; the hash is always that of the uncompressed content. Plain and
+ * compressed blobs can coexist, so the mode can be switched without rewriting old data.
+ * <p>
+ * With {@code schema.storage.delta.enabled=true} a new blob is stored as {@code {hash}.delta}
+ * when the caller names a base blob (normally the previous version) and the delta is less
+ * than half the size of the content. A delta records its base hash and its depth in the
+ * chain. Once a chain reaches {@code schema.storage.delta.max-chain}, the next version is
+ * stored as a full snapshot again, so a read applies at most that many deltas. Rebuilt
+ * contents are kept in a small cache ({@code schema.storage.delta.cache-bytes}) and
+ * verified against their hash.
+ * <p>
+ * With {@code schema.storage.segments.enabled=true} new blobs, in whichever of the forms
+ * above, are appended to large segment files instead of getting a file each (see
+ * {@link SchemaSegmentStore}); {@code schemas.file_path} still holds the hash, and the
+ * segment index maps it to its segment and offset. Blobs in files and in segments can
+ * coexist, and both are always searched. {@link #compactSegments} rewrites sealed
+ * segments that mostly hold blobs no schema references any more.
+ */
+@Service
+public class SchemaStorageServiceImpl implements SchemaStorageService {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final int COPY_BUFFER_SIZE = 8192;
+    private static final String GZIP = "gzip";
+    private static final String DELTA = "delta";
+    private static final String IDENTITY = "identity";
+    private static final int DELTA_MAGIC = 0x53444C31;
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    @Value("${schema.storage.path:./schemas}")
+    private String storagePath;
+
+    @Value("${schema.upload.max-bytes:52428800}")
+    private long maxUploadBytes = 52428800;
+
+    @Value("${schema.storage.compression:none}")
+    private String compression = "none";
+
+    @Value("${schema.storage.delta.enabled:false}")
+    private boolean deltaEnabled = false;
+
+    @Value("${schema.storage.delta.max-chain:10}")
+    private int maxDeltaChain = 10;
+
+    @Value("${schema.storage.delta.cache-bytes:16777216}")
+    private long deltaCacheBytes = 16777216;
+
+    @Value("${schema.storage.segments.enabled:false}")
+    private boolean segmentsEnabled = false;
+
+    @Value("${schema.storage.segments.max-bytes:268435456}")
+    private long maxSegmentBytes = 268435456;
+
+    @Value("${schema.storage.segments.compact-garbage-ratio:0.25}")
+    private double compactGarbageRatio = 0.25;
+
+    private volatile Cache<String, byte[]> rebuiltContents;
+    private volatile SchemaSegmentStore segments;
+
+    /**
+     * Streams the upload once into a temp file under the storage root while computing its
+     * SHA-256. Only a fixed copy buffer is held on heap, and the upload is rejected as soon
+     * as it exceeds {@code schema.upload.max-bytes}.
+     */
+    @Override
+    public SpooledUpload spool(InputStream content) throws IOException {
+        Path tempDirectory = Files.createDirectories(storageRoot().resolve("tmp"));
+        Path tempFile = Files.createTempFile(tempDirectory, "upload-", ".tmp");
+        try {
+            MessageDigest digest = newDigest();
+            long size = 0;
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(tempFile)) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxUploadBytes) {
+                        throw new IllegalArgumentException("Schema exceeds the maximum upload size of " + maxUploadBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return new SpooledUpload(tempFile, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public String commit(SpooledUpload upload, String baseFilePath) throws IOException {
+        String hash = upload.getContentHash();
+        if (locate(hash) != null) {
+            return hash;
+        }
+
+        Path blob = blobPath(hash);
+        if (!segmentsEnabled) {
+            Files.createDirectories(blob.getParent());
+        }
+        if (deltaEnabled && isContentHash(baseFilePath) && writeDelta(upload, baseFilePath, blob)) {
+            return hash;
+        }
+        if (GZIP.equals(compression)) {
+            Path compressed = Files.createTempFile(upload.getTempFile().getParent(), "upload-", ".gz.tmp");
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed), COPY_BUFFER_SIZE)) {
+                    Files.copy(upload.getTempFile(), out);
+                }
+                store(compressed, gzipPath(blob), hash, GZIP);
+            } finally {
+                Files.deleteIfExists(compressed);
+            }
+        } else {
+            store(upload.getTempFile(), blob, hash, null);
+        }
+        return hash;
+    }
+
+    @Override
+    public void discard(SpooledUpload upload) {
+        try {
+            Files.deleteIfExists(upload.getTempFile());
+        } catch (IOException ignored) {
+            // a leftover temp file is harmless; the next spool uses a fresh name
+        }
+    }
+
+    @Override
+    public String readContent(String filePath) throws IOException {
+        try (InputStream in = openContent(filePath)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public InputStream openContent(String filePath) throws IOException {
+        StoredBlob blob = openBlob(filePath);
+        InputStream in = blob.openStream();
+        return GZIP.equals(blob.getContentEncoding()) ? new GZIPInputStream(in, COPY_BUFFER_SIZE) : in;
+    }
+
+    /**
+     * Locates the stored bytes of a schema without decoding them, so callers that can pass
+     * the stored encoding through (e.g. to an HTTP client accepting gzip) avoid a
+     * decompress/recompress cycle.
+     */
+    @Override
+    public StoredBlob openBlob(String filePath) throws IOException {
+        if (!isContentHash(filePath)) {
+            Path legacy = Paths.get(filePath);
+            return new StoredBlob(legacy, null, Files.size(legacy));
+        }
+        StoredBlob blob = findBlob(filePath);
+        if (blob == null) {
+            throw new NoSuchFileException(blobPath(filePath).toString());
+        }
+        return DELTA.equals(blob.getContentEncoding()) ? new StoredBlob(rebuild(filePath)) : blob;
+    }
+
+    /**
+     * Content encoding of the blob {@link #openBlob} would return, from the segment index or
+     * the file name alone. Deltas are rebuilt on open, so they report none.
+     */
+    @Override
+    public String storedEncoding(String filePath) throws IOException {
+        if (!isContentHash(filePath)) {
+            return null;
+        }
+        String encoding = locate(filePath);
+        if (encoding == null) {
+            throw new NoSuchFileException(blobPath(filePath).toString());
+        }
+        return GZIP.equals(encoding) ? GZIP : null;
+    }
+
+    /**
+     * Stores the upload as a delta against {@code baseHash}, unless the chain is already at
+     * its maximum length, the base is missing or the delta would not save at least half.
+     */
+    private boolean writeDelta(SpooledUpload upload, String baseHash, Path blob) throws IOException {
+        int depth = chainDepth(baseHash) + 1;
+        if (depth < 1 || depth > maxDeltaChain || upload.getSize() > Integer.MAX_VALUE - 8) {
+            return false;
+        }
+        byte[] target = Files.readAllBytes(upload.getTempFile());
+        byte[] delta = SchemaDelta.encode(rebuild(baseHash), target);
+        if (delta.length > target.length / 2) {
+            return false;
+        }
+
+        Path temp = Files.createTempFile(upload.getTempFile().getParent(), "upload-", ".delta.tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(temp), COPY_BUFFER_SIZE))) {
+                out.writeInt(DELTA_MAGIC);
+                out.writeUTF(baseHash);
+                out.writeInt(depth);
+                out.writeInt(target.length);
+                out.write(delta);
+            }
+            store(temp, deltaPath(blob), upload.getContentHash(), DELTA);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        // the newest version is the likeliest base of the next delta
+        rebuiltContents().put(upload.getContentHash(), target);
+        return true;
+    }
+
+    /**
+     * Number of deltas between the blob and its full snapshot, or -1 if there is no such blob.
+     */
+    private int chainDepth(String hash) throws IOException {
+        String encoding = locate(hash);
+        if (encoding == null) {
+            return -1;
+        }
+        if (!DELTA.equals(encoding)) {
+            return 0;
+        }
+        try (DataInputStream in = openDelta(findBlob(hash))) {
+            in.readUTF();
+            return in.readInt();
+        }
+    }
+
+    private byte[] rebuild(String hash) throws IOException {
+        byte[] cached = rebuiltContents().getIfPresent(hash);
+        if (cached != null) {
+            return cached;
+        }
+        StoredBlob blob = findBlob(hash);
+        if (blob == null) {
+            throw new NoSuchFileException(blobPath(hash).toString());
+        }
+
+        byte[] content;
+        if (DELTA.equals(blob.getContentEncoding())) {
+            try (DataInputStream in = openDelta(blob)) {
+                String baseHash = in.readUTF();
+                in.readInt();
+                int length = in.readInt();
+                content = SchemaDelta.apply(rebuild(baseHash), in, length);
+            }
+            if (!Arrays.equals(newDigest().digest(content), HexFormat.of().parseHex(hash))) {
+                throw new IOException("Rebuilt content does not match blob " + hash);
+            }
+        } else {
+            try (InputStream in = GZIP.equals(blob.getContentEncoding())
+                    ? new GZIPInputStream(blob.openStream(), COPY_BUFFER_SIZE)
+                    : blob.openStream()) {
+                content = in.readAllBytes();
+            }
+        }
+        rebuiltContents().put(hash, content);
+        return content;
+    }
+
+    private static DataInputStream openDelta(StoredBlob blob) throws IOException {
+        DataInputStream in = new DataInputStream(new GZIPInputStream(blob.openStream(), COPY_BUFFER_SIZE));
+        if (in.readInt() != DELTA_MAGIC) {
+            in.close();
+            throw new IOException("Not a schema delta: " + (blob.getPath() != null ? blob.getPath() : "segment record"));
+        }
+        return in;
+    }
+
+    /**
+     * Moves a finished blob file into place, or appends it to the active segment.
+     */
+    private void store(Path source, Path target, String hash, String contentEncoding) throws IOException {
+        if (segmentsEnabled) {
+            segments().append(hash, contentEncoding, source);
+        } else {
+            moveAtomically(source, target);
+        }
+    }
+
+    /**
+     * Rewrites sealed segments in which at least {@code schema.storage.segments.compact-garbage-ratio}
+     * of the bytes belong to blobs that none of {@code referencedFilePaths}, directly or as
+     * the base of a delta, points at. The references are only requested when there are
+     * segments to compact. Must not run while uploads are committing blobs.
+     *
+     * @return bytes reclaimed
+     */
+    @Override
+    public long compactSegments(Supplier<? extends Collection<String>> referencedFilePaths) throws IOException {
+        if (!Files.isDirectory(storageRoot().resolve("segments"))) {
+            return 0;
+        }
+        Set<String> live = new HashSet<>();
+        for (String filePath : referencedFilePaths.get()) {
+            String hash = filePath;
+            // a delta keeps its whole chain of bases alive
+            while (isContentHash(hash) && live.add(hash)) {
+                if (!DELTA.equals(locate(hash))) {
+                    break;
+                }
+                try (DataInputStream in = openDelta(findBlob(hash))) {
+                    hash = in.readUTF();
+                }
+            }
+        }
+        return segments().compact(live::contains, compactGarbageRatio);
+    }
+
+    private SchemaSegmentStore segments() throws IOException {
+        SchemaSegmentStore store = segments;
+        if (store == null) {
+            synchronized (this) {
+                store = segments;
+                if (store == null) {
+                    store = new SchemaSegmentStore(storageRoot().resolve("segments"), maxSegmentBytes);
+                    segments = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    private Cache<String, byte[]> rebuiltContents() {
+        Cache<String, byte[]> cache = rebuiltContents;
+        if (cache == null) {
+            synchronized (this) {
+                cache = rebuiltContents;
+                if (cache == null) {
+                    cache = Caffeine.newBuilder()
+                            .maximumWeight(deltaCacheBytes)
+                            .weigher((String hash, byte[] content) -> content.length + ENTRY_OVERHEAD_BYTES)
+                            .executor(Runnable::run)
+                            .build();
+                    rebuiltContents = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Stored content encoding of a blob ({@code identity}, {@code gzip} or {@code delta}),
+     * or {@code null} if there is no such blob. Only the segment index and file names are
+     * consulted; the blob itself is not opened.
+     */
+    private String locate(String hash) throws IOException {
+        if (hasSegments()) {
+            SchemaSegmentStore.Location location = segments().find(hash);
+            if (location != null) {
+                return location.encoding() != null ? location.encoding() : IDENTITY;
+            }
+        }
+        Path plain = blobPath(hash);
+        if (Files.exists(plain)) {
+            return IDENTITY;
+        }
+        if (Files.exists(gzipPath(plain))) {
+            return GZIP;
+        }
+        return Files.exists(deltaPath(plain)) ? DELTA : null;
+    }
+
+    private StoredBlob findBlob(String hash) throws IOException {
+        if (hasSegments()) {
+            SchemaSegmentStore.Location location = segments().find(hash);
+            if (location != null) {
+                return new StoredBlob(segments().read(hash), location.encoding());
+            }
+        }
+        Path plain = blobPath(hash);
+        if (Files.exists(plain)) {
+            return new StoredBlob(plain, null, Files.size(plain));
+        }
+        Path gzip = gzipPath(plain);
+        if (Files.exists(gzip)) {
+            return new StoredBlob(gzip, GZIP, Files.size(gzip));
+        }
+        Path delta = deltaPath(plain);
+        if (Files.exists(delta)) {
+            return new StoredBlob(delta, DELTA, Files.size(delta));
+        }
+        return null;
+    }
+
+    private boolean hasSegments() {
+        return segmentsEnabled || segments != null || Files.isDirectory(storageRoot().resolve("segments"));
+    }
+
+    static boolean isContentHash(String filePath) {
+        return filePath != null && SHA256_HEX.matcher(filePath).matches();
+    }
+
+    private Path blobPath(String hash) {
+        return storageRoot().resolve("blobs").resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static Path gzipPath(Path blob) {
+        return blob.resolveSibling(blob.getFileName() + ".gz");
+    }
+
+    private static Path deltaPath(Path blob) {
+        return blob.resolveSibling(blob.getFileName() + ".delta");
+    }
+
+    private Path storageRoot() {
+        return new File(storagePath).getAbsoluteFile().toPath();
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
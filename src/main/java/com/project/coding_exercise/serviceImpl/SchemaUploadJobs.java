@@ -0,0 +1,90 @@
+package com.project.coding_exercise.serviceImpl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.coding_exercise.db.dto.SchemaResponse;
+import com.project.coding_exercise.db.dto.SchemaUploadJob;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Registry of asynchronous upload jobs. Jobs are kept for
+ * {@code schema.upload.async.job-retention-minutes} after their last state change, which is
+ * long enough for clients to poll the outcome without the registry growing unbounded.
+ * <p>
+ * Also hands out the upload pool's slots, one per thread and queue entry, so a submission
+ * can be turned away before its body is spooled rather than after.
+ */
+@Component
+public class SchemaUploadJobs {
+
+    private final Cache<String, SchemaUploadJob> jobs;
+    private final Semaphore slots;
+
+    public SchemaUploadJobs(@Value("${schema.upload.async.job-retention-minutes:60}") long retentionMinutes,
+                            @Value("${schema.upload.async.threads:2}") int threads,
+                            @Value("${schema.upload.async.queue-capacity:32}") int queueCapacity) {
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .executor(Runnable::run)
+                .build();
+        this.slots = new Semaphore(Math.max(1, threads) + queueCapacity);
+    }
+
+    /**
+     * Claims a place in the upload pool, or returns false when every thread and queue entry
+     * is taken. A claimed slot must be given back with {@link #releaseSlot()}.
+     */
+    public boolean tryReserveSlot() {
+        return slots.tryAcquire();
+    }
+
+    public void releaseSlot() {
+        slots.release();
+    }
+
+    public SchemaUploadJob create(String applicationName, String serviceName) {
+        SchemaUploadJob job = new SchemaUploadJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setApplicationName(applicationName);
+        job.setServiceName(serviceName);
+        job.setStatus(SchemaUploadJob.Status.QUEUED);
+        job.setSubmittedAt(LocalDateTime.now());
+        jobs.put(job.getJobId(), job);
+        return job;
+    }
+
+    public SchemaUploadJob get(String jobId) {
+        return jobs.getIfPresent(jobId);
+    }
+
+    public void running(SchemaUploadJob job) {
+        job.setStatus(SchemaUploadJob.Status.RUNNING);
+    }
+
+    public void succeeded(SchemaUploadJob job, SchemaResponse result) {
+        job.setResult(result);
+        complete(job, SchemaUploadJob.Status.SUCCEEDED);
+    }
+
+    public void failed(SchemaUploadJob job, String error) {
+        job.setError(error);
+        complete(job, SchemaUploadJob.Status.FAILED);
+    }
+
+    public void remove(SchemaUploadJob job) {
+        jobs.invalidate(job.getJobId());
+    }
+
+    private void complete(SchemaUploadJob job, SchemaUploadJob.Status status) {
+        job.setCompletedAt(LocalDateTime.now());
+        job.setStatus(status);
+        // restart the retention period from completion
+        jobs.put(job.getJobId(), job);
+    }
+}
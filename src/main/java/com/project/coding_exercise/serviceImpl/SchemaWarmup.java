@@ -0,0 +1,84 @@
+package com.project.coding_exercise.serviceImpl;
+
+import com.project.coding_exercise.service.SchemaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the search index from storage and preloads the latest schema of every application
+ * and service into the read cache, in the background once the context has started, so
+ * startup is not held up by either and the first wave of "latest" polls after a restart does
+ * not all miss.
+ * <p>
+ * As the {@code schemaWarmup} health indicator, part of the readiness group
+ * ({@code /actuator/health/readiness}), it reports {@code OUT_OF_SERVICE} until both have
+ * finished, which keeps a restarted instance out of the load balancer until search is
+ * complete and its cache is warm. A failed warm-up reports {@code UP} with the error, since
+ * the instance can still serve from the database.
+ */
+@Component
+public class SchemaWarmup implements HealthIndicator {
+
+    enum State { PENDING, RUNNING, DONE, FAILED }
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @Value("${schema.warmup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${schema.search.rebuild-on-startup:true}")
+    private boolean rebuildSearchIndex = true;
+
+    private volatile State state = State.PENDING;
+    private volatile int indexed;
+    private volatile int warmed;
+    private volatile long elapsedMillis;
+    private volatile String error;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        if (!enabled && !rebuildSearchIndex) {
+            state = State.DONE;
+            return;
+        }
+        Thread thread = new Thread(this::run, "schema-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void run() {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        try {
+            if (rebuildSearchIndex) {
+                indexed = schemaService.rebuildSearchIndex();
+            }
+            if (enabled) {
+                warmed = schemaService.warmLatestSchemas();
+            }
+            state = State.DONE;
+        } catch (Exception e) {
+            error = String.valueOf(e.getMessage());
+            state = State.FAILED;
+        } finally {
+            elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+
+    @Override
+    public Health health() {
+        State current = state;
+        return switch (current) {
+            case PENDING, RUNNING -> Health.outOfService().withDetail("state", current.name().toLowerCase()).build();
+            case DONE -> Health.up().withDetail("indexed", indexed).withDetail("warmed", warmed)
+                    .withDetail("elapsedMs", elapsedMillis).build();
+            case FAILED -> Health.up().withDetail("error", error).withDetail("elapsedMs", elapsedMillis).build();
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.coding_exercise.serviceImpl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks that serialise version allocation per application/service. Uploads for the
+ * same key take the same lock, so {@code MAX(version) + 1} and the insert of that version
+ * happen atomically with respect to each other; uploads for unrelated keys almost always
+ * hash to different stripes and proceed in parallel.
+ */
+@Component
+public class VersionAllocationLocks {
+
+    private final Lock[] stripes;
+
+    public VersionAllocationLocks(@Value("${schema.version-lock.stripes:64}") int stripeCount) {
+        this.stripes = new Lock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock lockFor(String applicationName, String serviceName) {
+        return stripes[stripeIndex(applicationName, serviceName)];
+    }
+
+    /**
+     * Returns the distinct locks covering every given service of an application, in stripe
+     * order. Acquiring them in the returned order cannot deadlock with another caller doing
+     * the same.
+     */
+    public List<Lock> locksFor(String applicationName, Collection<String> serviceNames) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (String serviceName : serviceNames) {
+            indexes.add(stripeIndex(applicationName, serviceName));
+        }
+        List<Lock> locks = new ArrayList<>(indexes.size());
+        for (Integer index : indexes) {
+            locks.add(stripes[index]);
+        }
+        return locks;
+    }
+
+    private int stripeIndex(String applicationName, String serviceName) {
+        String service = serviceName != null && !serviceName.trim().isEmpty() ? serviceName : null;
+        int hash = Objects.hash(applicationName, service);
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+}
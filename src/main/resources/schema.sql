@@ -27,3 +27,7 @@ CREATE TABLE IF NOT EXISTS schemas (
     FOREIGN KEY (service_id) REFERENCES services(id) ON DELETE CASCADE,
     UNIQUE(application_id, service_id, version)
 );
+
+-- Index latest/versioned lookups per service and per application
+CREATE INDEX IF NOT EXISTS idx_schemas_app_service_version ON schemas(application_id, service_id, version DESC);
+CREATE INDEX IF NOT EXISTS idx_schemas_app_version ON schemas(application_id, version DESC);
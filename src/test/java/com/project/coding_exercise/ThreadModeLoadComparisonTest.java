@@ -0,0 +1,183 @@
+package com.project.coding_exercise;
+
+import com.project.coding_exercise.config.ConcurrencyLimitingDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the same read/upload mix against the application with platform request threads and
+ * with virtual request threads, and reports throughput, latency percentiles, the peak number
+ * of database connections held at once and how often a request waited for one. The Tomcat
+ * pool is deliberately small so the platform-thread cap is visible. The connection guard
+ * allows fewer connections than the Hikari pool holds, so it, not the pool, is what bounds
+ * them: the peak must stay at the guard's limit and requests must queue on it.
+ * <p>
+ * Takes about half a minute, so it is tagged {@code load} and only runs with
+ * {@code mvn -Ploadtest test}.
+ */
+@Tag("load")
+class ThreadModeLoadComparisonTest {
+
+    private static final int CLIENTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final int TOMCAT_THREADS = 16;
+    private static final int POOL_SIZE = 10;
+    private static final int GUARD_PERMITS = 4;
+
+    private static final String SPEC = """
+            {"openapi": "3.0.0", "info": {"title": "Load API", "version": "1.0.0"}, "paths": {}}
+            """;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void testCompareThreadModes(TestReporter reporter) throws Exception {
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        for (LoadResult result : List.of(platform, virtual)) {
+            reporter.publishEntry(Map.of(
+                    "mode", result.mode,
+                    "requests", String.valueOf(result.latencies.size()),
+                    "throughput", "%.0f req/s".formatted(result.throughput()),
+                    "p50", "%.1f ms".formatted(result.percentile(50)),
+                    "p99", "%.1f ms".formatted(result.percentile(99)),
+                    "max", "%.1f ms".formatted(result.percentile(100)),
+                    "peakConnections", String.valueOf(result.peakConnections),
+                    "connectionWaits", String.valueOf(result.connectionWaits)));
+        }
+
+        for (LoadResult result : List.of(platform, virtual)) {
+            assertEquals(CLIENTS * REQUESTS_PER_CLIENT, result.ok.get(), result.mode + " had failed requests");
+            assertTrue(result.peakConnections <= GUARD_PERMITS, result.mode + " exceeded the connection guard");
+        }
+        // 200 virtual-thread clients against 4 permits must queue on the guard
+        assertTrue(virtual.connectionWaits > 0, "no request waited for a connection");
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        String database = "load-" + UUID.randomUUID();
+        // command-line arguments, since builder properties are defaults that application.properties overrides
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CodingExerciseApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--server.tomcat.threads.min-spare=" + TOMCAT_THREADS,
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--schema.datasource.max-concurrent-connections=" + GUARD_PERMITS,
+                "--schema.storage.path=" + storageDir.resolve(database),
+                "--logging.level.org.mybatis=WARN",
+                "--logging.level.com.project.coding_exercise.db.mapper=WARN");
+        try {
+            assertEquals(virtualThreads, context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ConcurrencyLimitingDataSource dataSource = assertInstanceOf(ConcurrencyLimitingDataSource.class,
+                    context.getBean(DataSource.class));
+
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            upload(client, port, "load-app", "svc");
+
+            LoadResult result = new LoadResult(virtualThreads ? "virtual" : "platform");
+            long start = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    int clientId = c;
+                    futures.add(clients.submit(() -> {
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            long requestStart = System.nanoTime();
+                            int status = r % 5 == 0
+                                    ? upload(client, port, "load-app", "svc-" + clientId + "-" + r)
+                                    : get(client, port, "/schemas/load-app/svc/latest");
+                            result.record(status, System.nanoTime() - requestStart);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            result.elapsedNanos = System.nanoTime() - start;
+            result.peakConnections = dataSource.peakInUse();
+            result.connectionWaits = dataSource.waitCount();
+            return result;
+        } finally {
+            context.close();
+        }
+    }
+
+    private static int get(HttpClient client, int port, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static int upload(HttpClient client, int port, String applicationName, String serviceName) throws Exception {
+        String boundary = "load-" + UUID.randomUUID();
+        String body = "--" + boundary + "\r\nContent-Disposition: form-data; name=\"applicationName\"\r\n\r\n" + applicationName + "\r\n"
+                + "--" + boundary + "\r\nContent-Disposition: form-data; name=\"serviceName\"\r\n\r\n" + serviceName + "\r\n"
+                + "--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"spec.json\"\r\n"
+                + "Content-Type: application/json\r\n\r\n" + SPEC + "\r\n--" + boundary + "--\r\n";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/schemas/upload"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static final class LoadResult {
+        private final String mode;
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger ok = new AtomicInteger();
+        private long elapsedNanos;
+        private int peakConnections;
+        private long connectionWaits;
+
+        private LoadResult(String mode) {
+            this.mode = mode;
+        }
+
+        private void record(int status, long nanos) {
+            latencies.add(nanos);
+            if (status == 200) {
+                ok.incrementAndGet();
+            }
+        }
+
+        private double throughput() {
+            return latencies.size() / (elapsedNanos / 1e9);
+        }
+
+        private double percentile(int percentile) {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            int index = Math.min(sorted.size() - 1, (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1);
+            return sorted.get(Math.max(0, index)) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.coding_exercise.api.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:schema-metrics;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @TempDir
+    static Path storageDir;
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("schema.storage.path", () -> storageDir.toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testPrometheus_ExposesUploadStageHistogramsAndCounters() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "spec.json", "application/json",
+                "{\"openapi\": \"3.0.0\", \"info\": {\"title\": \"Metrics API\", \"version\": \"1.0.0\"}, \"paths\": {}}".getBytes());
+        mockMvc.perform(multipart("/schemas/upload").file(file)
+                        .param("applicationName", "metrics-app")
+                        .param("serviceName", "svc"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("schema_upload_stage_seconds_bucket{stage=\"validate\"")))
+                .andExpect(content().string(containsString("schema_upload_stage_seconds_count{stage=\"version-insert\"}")))
+                .andExpect(content().string(containsString("schema_uploads_total{application=\"metrics-app\",outcome=\"stored\"}")))
+                .andExpect(content().string(containsString("schema_upload_payload_bytes_sum{application=\"metrics-app\"}")));
+    }
+
+    @Test
+    void testReadiness_IncludesSchemaWarmup() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(content().string(containsString("\"schemaWarmup\"")));
+    }
+}
@@ -1,17 +1,44 @@
 package com.project.coding_exercise.api.controller;
 
+import com.project.coding_exercise.db.dto.BatchUploadResponse;
+import com.project.coding_exercise.db.dto.BatchUploadResult;
+import com.project.coding_exercise.db.dto.RawSchemaContent;
+import com.project.coding_exercise.db.dto.SchemaCacheStats;
+import com.project.coding_exercise.db.dto.SchemaDiff;
 import com.project.coding_exercise.db.dto.SchemaResponse;
+import com.project.coding_exercise.db.dto.SchemaSearchHit;
+import com.project.coding_exercise.db.dto.SchemaUploadJob;
+import com.project.coding_exercise.db.dto.SchemaVersionPage;
+import com.project.coding_exercise.db.dto.StoredBlob;
+import com.project.coding_exercise.service.InvalidSchemaPointerException;
 import com.project.coding_exercise.service.SchemaService;
+import com.project.coding_exercise.service.SchemaRefUnavailableException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,6 +52,9 @@ class SchemaControllerTest {
     @MockitoBean
     private SchemaService schemaService;
 
+    @TempDir
+    Path tempDir;
+
     @Test
     void testUploadSchema() throws Exception {
         SchemaResponse mockResponse = new SchemaResponse();
@@ -54,6 +84,94 @@ class SchemaControllerTest {
                 .andExpect(jsonPath("$.version").value(1));
     }
 
+    @Test
+    void testUploadSchema_UnreachableRefIsRetryable() throws Exception {
+        when(schemaService.uploadSchema(any()))
+                .thenThrow(new SchemaRefUnavailableException("http://example.com/common.yaml", new IOException("timed out")));
+
+        MockMultipartFile file = new MockMultipartFile("file", "test.json", "application/json", "{}".getBytes());
+
+        mockMvc.perform(multipart("/schemas/upload").file(file).param("applicationName", "test-app"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void testSubmitUpload_Accepted() throws Exception {
+        SchemaUploadJob job = new SchemaUploadJob();
+        job.setJobId("job-1");
+        job.setApplicationName("test-app");
+        job.setStatus(SchemaUploadJob.Status.QUEUED);
+        when(schemaService.submitUpload(any())).thenReturn(job);
+
+        MockMultipartFile file = new MockMultipartFile("file", "test.json", "application/json", "{}".getBytes());
+
+        mockMvc.perform(multipart("/schemas/upload/async").file(file).param("applicationName", "test-app"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/schemas/upload/jobs/job-1"))
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void testSubmitUpload_QueueFull() throws Exception {
+        when(schemaService.submitUpload(any())).thenThrow(new RejectedExecutionException("queue full"));
+
+        MockMultipartFile file = new MockMultipartFile("file", "test.json", "application/json", "{}".getBytes());
+
+        mockMvc.perform(multipart("/schemas/upload/async").file(file).param("applicationName", "test-app"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void testGetUploadJob() throws Exception {
+        SchemaUploadJob job = new SchemaUploadJob();
+        job.setJobId("job-1");
+        job.setStatus(SchemaUploadJob.Status.FAILED);
+        job.setError("Invalid OpenAPI specification");
+        when(schemaService.getUploadJob("job-1")).thenReturn(job);
+
+        mockMvc.perform(get("/schemas/upload/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.error").value("Invalid OpenAPI specification"));
+
+        mockMvc.perform(get("/schemas/upload/jobs/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUploadSchemas() throws Exception {
+        BatchUploadResult result = new BatchUploadResult();
+        result.setFileName("users.json");
+        result.setServiceName("users");
+        result.setSuccess(true);
+        result.setVersion(1);
+        BatchUploadResponse mockResponse = new BatchUploadResponse();
+        mockResponse.setApplicationName("test-app");
+        mockResponse.setSucceeded(1);
+        mockResponse.setResults(List.of(result));
+
+        when(schemaService.uploadSchemas(eq("test-app"), anyList(), isNull())).thenReturn(mockResponse);
+
+        mockMvc.perform(multipart("/schemas/upload/batch")
+                .file(new MockMultipartFile("files", "users.json", "application/json", "{}".getBytes()))
+                .file(new MockMultipartFile("files", "orders.json", "application/json", "{}".getBytes()))
+                .param("applicationName", "test-app"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[0].serviceName").value("users"))
+                .andExpect(jsonPath("$.results[0].version").value(1));
+    }
+
+    @Test
+    void testUploadSchemas_NoFiles() throws Exception {
+        mockMvc.perform(multipart("/schemas/upload/batch")
+                .param("applicationName", "test-app"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetLatestSchema() throws Exception {
         SchemaResponse mockResponse = new SchemaResponse();
@@ -152,4 +270,365 @@ class SchemaControllerTest {
         mockMvc.perform(get("/schemas/nonexistent-app/nonexistent-service/latest"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void testGetSchemaVersions() throws Exception {
+        SchemaResponse version = new SchemaResponse();
+        version.setId(7L);
+        version.setVersion(3);
+        SchemaVersionPage page = new SchemaVersionPage();
+        page.setLimit(1);
+        page.setNextCursor(3);
+        page.setVersions(List.of(version));
+
+        when(schemaService.getVersionHistory("test-app", "test-service", 4, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/schemas/test-app/test-service/versions").param("cursor", "4").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value(3))
+                .andExpect(jsonPath("$.versions[0].version").value(3))
+                .andExpect(jsonPath("$.versions[0].content").doesNotExist());
+    }
+
+    @Test
+    void testGetApplicationSchemaVersions_InvalidLimit() throws Exception {
+        mockMvc.perform(get("/schemas/test-app/versions").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(schemaService, never()).getVersionHistory(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetSchemaDiff() throws Exception {
+        SchemaDiff diff = new SchemaDiff();
+        diff.setFromVersion(1);
+        diff.setToVersion(2);
+        diff.getOperations().getAdded().add("GET /orders");
+
+        when(schemaService.getSchemaDiff("test-app", "test-service", 1, 2)).thenReturn(diff);
+
+        mockMvc.perform(get("/schemas/test-app/test-service/diff").param("from", "1").param("to", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.toVersion").value(2))
+                .andExpect(jsonPath("$.operations.added[0]").value("GET /orders"));
+    }
+
+    @Test
+    void testGetSchemaDiff_NotFound() throws Exception {
+        when(schemaService.getSchemaDiff("test-app", "test-service", null, null))
+                .thenThrow(new IllegalArgumentException("Service not found: test-service"));
+
+        mockMvc.perform(get("/schemas/test-app/test-service/diff"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSearchSchemas() throws Exception {
+        when(schemaService.searchSchemas(null, null, "createOrder", null, null))
+                .thenReturn(List.of(new SchemaSearchHit("shop", "orders", 3)));
+
+        mockMvc.perform(get("/schemas/search").param("operationId", "createOrder"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].serviceName").value("orders"))
+                .andExpect(jsonPath("$[0].version").value(3));
+    }
+
+    @Test
+    void testSearchSchemas_NoCriteria() throws Exception {
+        when(schemaService.searchSchemas(null, null, null, null, null))
+                .thenThrow(new IllegalArgumentException("At least one search criterion is required"));
+
+        mockMvc.perform(get("/schemas/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetCacheStats() throws Exception {
+        SchemaCacheStats stats = new SchemaCacheStats();
+        stats.setHits(5);
+        stats.setMisses(2);
+        stats.setEvictions(1);
+
+        when(schemaService.getCacheStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/schemas/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(5))
+                .andExpect(jsonPath("$.misses").value(2))
+                .andExpect(jsonPath("$.evictions").value(1));
+    }
+
+    @Test
+    void testGetLatestSchema_ReturnsETag() throws Exception {
+        SchemaResponse mockResponse = new SchemaResponse();
+        mockResponse.setId(5L);
+        mockResponse.setApplicationName("test-app");
+        mockResponse.setServiceName("test-service");
+        mockResponse.setVersion(3);
+        mockResponse.setContent("{\"openapi\": \"3.0.0\"}");
+
+        when(schemaService.getLatestSchema("test-app", "test-service")).thenReturn(mockResponse);
+
+        mockMvc.perform(get("/schemas/test-app/test-service/latest"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5-3\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void testGetLatestSchema_FormatConvertsContent() throws Exception {
+        SchemaResponse mockResponse = new SchemaResponse();
+        mockResponse.setId(5L);
+        mockResponse.setVersion(3);
+        mockResponse.setContent("{\"openapi\": \"3.0.0\"}");
+        SchemaResponse rendered = new SchemaResponse();
+        rendered.setId(5L);
+        rendered.setVersion(3);
+        rendered.setContent("openapi: 3.0.0\n");
+
+        when(schemaService.getLatestSchema("test-app", "test-service")).thenReturn(mockResponse);
+        when(schemaService.renderSchema(mockResponse, "application/yaml")).thenReturn(rendered);
+
+        mockMvc.perform(get("/schemas/test-app/test-service/latest").param("format", "yaml"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5-3-yaml\""))
+                .andExpect(jsonPath("$.content").value("openapi: 3.0.0\n"));
+
+        mockMvc.perform(get("/schemas/test-app/test-service/latest").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetLatestSchema_NotModified() throws Exception {
+        SchemaResponse metadata = new SchemaResponse();
+        metadata.setId(5L);
+        metadata.setVersion(3);
+
+        when(schemaService.getLatestSchemaMetadata("test-app", "test-service")).thenReturn(metadata);
+
+        mockMvc.perform(get("/schemas/test-app/test-service/latest").header("If-None-Match", "\"5-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"5-3\""))
+                .andExpect(content().string(""));
+
+        verify(schemaService, never()).getLatestSchema("test-app", "test-service");
+    }
+
+    @Test
+    void testGetLatestSchema_StaleETagReturnsSchema() throws Exception {
+        SchemaResponse metadata = new SchemaResponse();
+        metadata.setId(6L);
+        metadata.setVersion(4);
+        SchemaResponse mockResponse = new SchemaResponse();
+        mockResponse.setId(6L);
+        mockResponse.setApplicationName("test-app");
+        mockResponse.setVersion(4);
+        mockResponse.setContent("{\"openapi\": \"3.0.0\"}");
+
+        when(schemaService.getLatestSchemaMetadata("test-app", null)).thenReturn(metadata);
+        when(schemaService.getLatestSchema("test-app", null)).thenReturn(mockResponse);
+
+        mockMvc.perform(get("/schemas/test-app/latest").header("If-None-Match", "\"5-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6-4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void testGetSchemaByVersion_ImmutableCacheControl() throws Exception {
+        SchemaResponse mockResponse = new SchemaResponse();
+        mockResponse.setId(1L);
+        mockResponse.setApplicationName("test-app");
+        mockResponse.setServiceName("test-service");
+        mockResponse.setVersion(1);
+        mockResponse.setContent("{\"openapi\": \"3.0.0\"}");
+
+        when(schemaService.getSchemaByVersion("test-app", "test-service", 1)).thenReturn(mockResponse);
+
+        mockMvc.perform(get("/schemas/test-app/test-service/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-1\""))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    void testGetRawSchemaByVersion_StreamsFileWithMediaType() throws Exception {
+        String yaml = "openapi: 3.0.0\ninfo:\n  title: Test\n";
+        Path file = Files.writeString(tempDir.resolve("schema"), yaml);
+
+        when(schemaService.getRawSchemaByVersion("test-app", "test-service", 2))
+                .thenReturn(rawSchema(file, null, "application/yaml"));
+
+        mockMvc.perform(get("/schemas/test-app/test-service/2/raw"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/yaml"))
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string(yaml));
+    }
+
+    @Test
+    void testGetLatestRawSchema_PassesThroughGzip() throws Exception {
+        String json = "{\"openapi\": \"3.0.0\"}";
+        Path file = gzip(json);
+
+        when(schemaService.getLatestRawSchema("test-app", "test-service"))
+                .thenReturn(rawSchema(file, "gzip", "application/json"));
+
+        mockMvc.perform(get("/schemas/test-app/test-service/latest/raw").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"abc123-gzip\""))
+                .andExpect(content().bytes(Files.readAllBytes(file)));
+    }
+
+    @Test
+    void testGetRawSchemaByVersion_StreamsSegmentSlice() throws Exception {
+        RawSchemaContent raw = new RawSchemaContent();
+        raw.setId(1L);
+        raw.setVersion(2);
+        raw.setContentHash("abc123");
+        raw.setMediaType("application/json");
+        ByteBuffer segment = ByteBuffer.wrap("xx{\"openapi\": \"3.0.0\"}yy".getBytes());
+        raw.setBlob(new StoredBlob(segment.slice(2, 20), null));
+
+        when(schemaService.getRawSchemaByVersion("test-app", "test-service", 2)).thenReturn(raw);
+
+        mockMvc.perform(get("/schemas/test-app/test-service/2/raw"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Length", "20"))
+                .andExpect(content().string("{\"openapi\": \"3.0.0\"}"));
+    }
+
+    @Test
+    void testGetLatestRawSchema_NotModifiedWithoutOpeningTheBlob() throws Exception {
+        RawSchemaContent raw = new RawSchemaContent();
+        raw.setId(1L);
+        raw.setVersion(2);
+        raw.setContentHash("abc123");
+        raw.setContentEncoding("gzip");
+        raw.setMediaType("application/json");
+        raw.setBlobOpener(() -> {
+            throw new AssertionError("blob opened for a 304");
+        });
+
+        when(schemaService.getLatestRawSchema("test-app", "test-service")).thenReturn(raw);
+
+        mockMvc.perform(get("/schemas/test-app/test-service/latest/raw")
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", "\"abc123-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc123-gzip\""));
+    }
+
+    @Test
+    void testGetLatestRawApplicationSchema_DecodesGzipForIdentityClients() throws Exception {
+        String json = "{\"openapi\": \"3.0.0\"}";
+        Path file = gzip(json);
+
+        when(schemaService.getLatestRawSchema("test-app", null))
+                .thenReturn(rawSchema(file, "gzip", "application/json"));
+
+        mockMvc.perform(get("/schemas/test-app/latest/raw"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string(json));
+    }
+
+    @Test
+    void testGetRawSchemaByVersion_PointerReturnsFragment() throws Exception {
+        RawSchemaContent fragment = new RawSchemaContent();
+        fragment.setId(1L);
+        fragment.setVersion(2);
+        fragment.setContentHash("def456");
+        fragment.setMediaType("application/json");
+        fragment.setBlob(new StoredBlob("{\"type\":\"object\"}".getBytes()));
+
+        when(schemaService.getRawSchemaFragmentByVersion("test-app", "test-service", 2, "/components/schemas/Order", null))
+                .thenReturn(fragment);
+
+        mockMvc.perform(get("/schemas/test-app/test-service/2/raw").param("pointer", "/components/schemas/Order"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(header().string("ETag", "\"def456\""))
+                .andExpect(content().string("{\"type\":\"object\"}"));
+        verify(schemaService, never()).getRawSchemaByVersion(any(), any(), any());
+    }
+
+    @Test
+    void testGetRawSchemaByVersion_MalformedPointerReturnsBadRequest() throws Exception {
+        when(schemaService.getRawSchemaFragmentByVersion("test-app", "test-service", 2, "components/schemas", null))
+                .thenThrow(new InvalidSchemaPointerException("JSON Pointer must start with '/': components/schemas"));
+        when(schemaService.getLatestRawSchemaFragment("test-app", null, "/components/a~2b", null))
+                .thenThrow(new InvalidSchemaPointerException("Invalid escape in JSON Pointer: /components/a~2b"));
+        when(schemaService.getRawSchemaFragmentByVersion("test-app", "test-service", 2, "/components/schemas/Missing", null))
+                .thenThrow(new IllegalArgumentException("Nothing found at /components/schemas/Missing in version 2"));
+
+        mockMvc.perform(get("/schemas/test-app/test-service/2/raw").param("pointer", "components/schemas"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/schemas/test-app/latest/raw").param("pointer", "/components/a~2b"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/schemas/test-app/test-service/2/raw").param("pointer", "/components/schemas/Missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetRawSchemaByVersion_AcceptYamlReturnsRendition() throws Exception {
+        RawSchemaContent rendition = new RawSchemaContent();
+        rendition.setId(1L);
+        rendition.setVersion(2);
+        rendition.setContentHash("abc123-yaml");
+        rendition.setMediaType("application/yaml");
+        rendition.setBlob(new StoredBlob("openapi: 3.0.0\n".getBytes()));
+
+        when(schemaService.getRawSchemaRenditionByVersion("test-app", "test-service", 2, "application/yaml"))
+                .thenReturn(rendition);
+
+        mockMvc.perform(get("/schemas/test-app/test-service/2/raw").header("Accept", "application/x-yaml, application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/yaml"))
+                .andExpect(header().string("ETag", "\"abc123-yaml\""))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andExpect(content().string("openapi: 3.0.0\n"));
+        verify(schemaService, never()).getRawSchemaByVersion(any(), any(), any());
+    }
+
+    @Test
+    void testNegotiateMediaType() {
+        assertNull(SchemaController.negotiateMediaType(null));
+        assertNull(SchemaController.negotiateMediaType("*/*"));
+        assertNull(SchemaController.negotiateMediaType("text/html,application/xhtml+xml,*/*;q=0.8"));
+        assertNull(SchemaController.negotiateMediaType("not a media type"));
+        assertEquals("application/json", SchemaController.negotiateMediaType("application/json, */*"));
+        assertEquals("application/yaml", SchemaController.negotiateMediaType("text/yaml"));
+        assertEquals("application/yaml", SchemaController.negotiateMediaType("application/json;q=0.4, application/yaml"));
+    }
+
+    @Test
+    void testGetRawApplicationSchemaByVersion_NotFound() throws Exception {
+        when(schemaService.getRawSchemaByVersion("test-app", null, 9))
+                .thenThrow(new IllegalArgumentException("Schema not found"));
+
+        mockMvc.perform(get("/schemas/test-app/9/raw"))
+                .andExpect(status().isNotFound());
+    }
+
+    private RawSchemaContent rawSchema(Path file, String contentEncoding, String mediaType) throws Exception {
+        RawSchemaContent raw = new RawSchemaContent();
+        raw.setId(1L);
+        raw.setVersion(2);
+        raw.setContentHash("abc123");
+        raw.setContentEncoding(contentEncoding);
+        raw.setMediaType(mediaType);
+        raw.setBlob(new StoredBlob(file, contentEncoding, Files.size(file)));
+        return raw;
+    }
+
+    private Path gzip(String content) throws Exception {
+        Path file = tempDir.resolve("schema.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(content.getBytes());
+        }
+        return file;
+    }
 }
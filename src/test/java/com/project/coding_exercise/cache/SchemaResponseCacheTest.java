@@ -0,0 +1,63 @@
+package com.project.coding_exercise.cache;
+
+import com.project.coding_exercise.db.dto.SchemaResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaResponseCacheTest {
+
+    @Test
+    void testGetLatest_InvalidatedByUpload() {
+        SchemaResponseCache cache = new SchemaResponseCache(1 << 20);
+        cache.putLatest("app", "svc", response(1, "a"), cache.latestStamp());
+
+        assertNotNull(cache.getLatest("app", "svc"));
+
+        cache.invalidateLatest("app", "svc");
+
+        assertNull(cache.getLatest("app", "svc"));
+        assertNotNull(cache.getVersion("app", "svc", 1));
+    }
+
+    @Test
+    void testPutLatest_IgnoredWhenInvalidatedDuringLoad() {
+        SchemaResponseCache cache = new SchemaResponseCache(1 << 20);
+        long stamp = cache.latestStamp();
+
+        cache.invalidateLatest("app", "svc");
+        cache.putLatest("app", "svc", response(1, "a"), stamp);
+
+        assertNull(cache.getLatest("app", "svc"));
+    }
+
+    @Test
+    void testInvalidateLatest_AlsoDropsApplicationLatest() {
+        SchemaResponseCache cache = new SchemaResponseCache(1 << 20);
+        cache.putLatest("app", null, response(3, "a"), cache.latestStamp());
+
+        cache.invalidateLatest("app", "svc");
+
+        assertNull(cache.getLatest("app", null));
+    }
+
+    @Test
+    void testEviction_BoundedByContentSize() {
+        SchemaResponseCache cache = new SchemaResponseCache(10_000);
+        String content = "x".repeat(2_000);
+
+        for (int version = 1; version <= 10; version++) {
+            cache.putVersion("app", "svc", response(version, content));
+        }
+
+        assertTrue(cache.stats().getEvictions() > 0);
+        assertTrue(cache.stats().getWeightBytes() <= 10_000);
+    }
+
+    private static SchemaResponse response(int version, String content) {
+        SchemaResponse response = new SchemaResponse();
+        response.setVersion(version);
+        response.setContent(content);
+        return response;
+    }
+}
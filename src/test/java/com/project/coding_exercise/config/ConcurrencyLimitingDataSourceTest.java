@@ -0,0 +1,95 @@
+package com.project.coding_exercise.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitingDataSourceTest {
+
+    private JdbcDataSource target;
+
+    @BeforeEach
+    void setUp() {
+        target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:guard;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    void testClose_ReleasesPermitOnce() throws Exception {
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 2, 100);
+
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.availablePermits());
+
+        try (Statement statement = connection.createStatement()) {
+            assertTrue(statement.execute("SELECT 1"));
+        }
+        connection.close();
+        connection.close();
+
+        assertEquals(2, dataSource.availablePermits());
+        assertEquals(1, dataSource.peakInUse());
+    }
+
+    @Test
+    void testGetConnection_TimesOutWhenAllPermitsHeld() throws Exception {
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 1, 50);
+
+        try (Connection held = dataSource.getConnection()) {
+            assertFalse(held.isClosed());
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        }
+
+        try (Connection next = dataSource.getConnection()) {
+            assertFalse(next.isClosed());
+        }
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void testGetConnection_WaitsWhileAllPermitsHeld() throws Exception {
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 1, 5000);
+        Connection held = dataSource.getConnection();
+
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dataSource.waitCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+
+        assertEquals(1, dataSource.waitCount());
+        assertFalse(waiter.isDone());
+        held.close();
+        try (Connection next = waiter.get(5, TimeUnit.SECONDS)) {
+            assertFalse(next.isClosed());
+        }
+        assertEquals(1, dataSource.peakInUse());
+    }
+
+    @Test
+    void testGetConnection_ReleasesPermitWhenTargetFails() {
+        target.setURL("jdbc:h2:mem:guard;IFEXISTS=TRUE;NO_SUCH_SETTING=1");
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 1, 50);
+
+        assertThrows(Exception.class, dataSource::getConnection);
+
+        assertEquals(1, dataSource.availablePermits());
+    }
+}
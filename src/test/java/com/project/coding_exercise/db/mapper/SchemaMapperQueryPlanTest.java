@@ -0,0 +1,118 @@
+package com.project.coding_exercise.db.mapper;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the query plans of the schema lookups. The database is seeded with a few hundred
+ * thousand schema rows, every lookup statement is taken from the MyBatis configuration
+ * (so the test follows any change to the mapper SQL) and run through {@code EXPLAIN};
+ * the test fails if a lookup stops seeking an index and falls back to a table scan.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query-plan;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SchemaMapperQueryPlanTest {
+
+    private static final int APPLICATIONS = 1_000;
+    private static final int SERVICES_PER_APPLICATION = 5;
+    private static final int VERSIONS_PER_SERVICE = 40;
+    private static final int APPLICATION_LEVEL_VERSIONS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    private Map<String, Object> parameters;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO applications (name) SELECT 'plan-app-' || X FROM SYSTEM_RANGE(1, ?)", APPLICATIONS);
+        jdbcTemplate.update("INSERT INTO services (application_id, name) SELECT a.id, 'svc-' || r.X "
+                + "FROM applications a, SYSTEM_RANGE(1, ?) r", SERVICES_PER_APPLICATION);
+        jdbcTemplate.update("INSERT INTO schemas (application_id, service_id, version, file_path) "
+                + "SELECT s.application_id, s.id, r.X, 'seed' FROM services s, SYSTEM_RANGE(1, ?) r", VERSIONS_PER_SERVICE);
+        jdbcTemplate.update("INSERT INTO schemas (application_id, service_id, version, file_path) "
+                + "SELECT a.id, NULL, r.X, 'seed' FROM applications a, SYSTEM_RANGE(1, ?) r", APPLICATION_LEVEL_VERSIONS);
+        jdbcTemplate.execute("ANALYZE");
+
+        Long applicationId = jdbcTemplate.queryForObject("SELECT id FROM applications WHERE name = 'plan-app-500'", Long.class);
+        Long serviceId = jdbcTemplate.queryForObject("SELECT id FROM services WHERE application_id = ? AND name = 'svc-3'", Long.class, applicationId);
+        parameters = new HashMap<>();
+        parameters.put("applicationId", applicationId);
+        parameters.put("serviceId", serviceId);
+        parameters.put("applicationName", "plan-app-500");
+        parameters.put("serviceName", "svc-3");
+        parameters.put("version", 7);
+        parameters.put("beforeVersion", 30);
+        parameters.put("limit", 21);
+    }
+
+    @Test
+    void testSeededRowCount() {
+        int expected = APPLICATIONS * (SERVICES_PER_APPLICATION * VERSIONS_PER_SERVICE + APPLICATION_LEVEL_VERSIONS);
+        assertEquals(expected, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schemas", Integer.class));
+    }
+
+    @Test
+    void testLatestLookupsReadTheFirstIndexEntry() {
+        assertIndexSorted("findLatestByApplication", "IDX_SCHEMAS_APP_VERSION");
+        assertIndexSorted("findLatestByApplicationIdAndServiceId", "IDX_SCHEMAS_APP_SERVICE_VERSION");
+        assertIndexSorted("findMaxVersionByApplicationWithoutService", "IDX_SCHEMAS_APP_SERVICE_VERSION");
+        assertIndexSorted("findMaxVersionByApplicationIdAndServiceId", "IDX_SCHEMAS_APP_SERVICE_VERSION");
+        assertIndexSorted("findLatestByApplicationNameAndServiceName", "IDX_SCHEMAS_APP_SERVICE_VERSION");
+        assertIndexSorted("findLatestByApplicationName", "IDX_SCHEMAS_APP_VERSION");
+    }
+
+    @Test
+    void testHistoryLookupsAreReturnedInIndexOrder() {
+        assertIndexSorted("findAllByApplicationWithoutService", "IDX_SCHEMAS_APP_SERVICE_VERSION");
+        assertIndexSorted("findAllByApplicationIdAndServiceId", "IDX_SCHEMAS_APP_SERVICE_VERSION");
+        assertIndexSorted("findVersionPageWithoutService", "IDX_SCHEMAS_APP_SERVICE_VERSION");
+        assertIndexSorted("findVersionPageByApplicationIdAndServiceId", "IDX_SCHEMAS_APP_SERVICE_VERSION");
+    }
+
+    @Test
+    void testVersionLookupsSeekIndexes() {
+        for (String statement : new String[] {
+                "findByApplicationAndVersion",
+                "findByApplicationIdServiceIdAndVersion",
+                "findByApplicationNameServiceNameAndVersion",
+                "findByApplicationNameAndVersion"}) {
+            String plan = explain(statement);
+            assertFalse(plan.contains("tableScan"), statement + " scans a table:\n" + plan);
+        }
+    }
+
+    private void assertIndexSorted(String statement, String index) {
+        String plan = explain(statement);
+        assertFalse(plan.contains("tableScan"), statement + " scans a table:\n" + plan);
+        assertTrue(plan.contains("PUBLIC." + index), statement + " does not use " + index + ":\n" + plan);
+        assertTrue(plan.contains("/* index sorted */"), statement + " sorts its result:\n" + plan);
+    }
+
+    private String explain(String statement) {
+        BoundSql boundSql = sqlSessionFactory.getConfiguration()
+                .getMappedStatement(SchemaMapper.class.getName() + "." + statement)
+                .getBoundSql(parameters);
+        String sql = boundSql.getSql();
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            Object value = parameters.get(mapping.getProperty());
+            sql = sql.replaceFirst("\\?", value instanceof String ? "'" + value + "'" : String.valueOf(value));
+        }
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
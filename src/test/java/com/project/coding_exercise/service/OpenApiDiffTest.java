@@ -0,0 +1,138 @@
+package com.project.coding_exercise.service;
+
+import com.project.coding_exercise.db.dto.SchemaDiff;
+import com.project.coding_exercise.serviceImpl.OpenApiDiff;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenApiDiffTest {
+
+    private static final String BASE = """
+        openapi: 3.0.0
+        info:
+          title: Users
+          version: 1.0.0
+        paths:
+          /users:
+            get:
+              parameters:
+                - name: limit
+                  in: query
+                  schema:
+                    type: integer
+                - name: sort
+                  in: query
+                  schema:
+                    type: string
+              responses:
+                '200':
+                  description: OK
+            post:
+              responses:
+                '201':
+                  description: Created
+          /health:
+            get:
+              responses:
+                '200':
+                  description: OK
+        components:
+          schemas:
+            User:
+              type: object
+              properties:
+                name:
+                  type: string
+            Legacy:
+              type: string
+        """;
+
+    private static final String NEXT = """
+        openapi: 3.0.0
+        info:
+          title: Users
+          version: 1.1.0
+        paths:
+          /users:
+            get:
+              parameters:
+                - name: limit
+                  in: query
+                  schema:
+                    type: string
+                - name: cursor
+                  in: query
+                  schema:
+                    type: integer
+              responses:
+                '200':
+                  description: OK
+            delete:
+              responses:
+                '204':
+                  description: Deleted
+          /users/{id}:
+            get:
+              parameters:
+                - name: id
+                  in: path
+                  required: true
+                  schema:
+                    type: integer
+              responses:
+                '200':
+                  description: OK
+        components:
+          schemas:
+            User:
+              type: object
+              properties:
+                name:
+                  type: string
+                email:
+                  type: string
+            Page:
+              type: object
+        """;
+
+    @Test
+    void testCompare_ReportsAddedRemovedAndChangedEntries() {
+        SchemaDiff diff = OpenApiDiff.compare(parse(BASE), parse(NEXT));
+
+        assertEquals(List.of("/users/{id}"), diff.getPaths().getAdded());
+        assertEquals(List.of("/health"), diff.getPaths().getRemoved());
+        assertEquals(List.of("/users"), diff.getPaths().getChanged());
+
+        assertEquals(List.of("DELETE /users", "GET /users/{id}"), diff.getOperations().getAdded());
+        assertEquals(List.of("GET /health", "POST /users"), diff.getOperations().getRemoved());
+        assertEquals(List.of("GET /users"), diff.getOperations().getChanged());
+
+        assertEquals(List.of("GET /users query:cursor"), diff.getParameters().getAdded());
+        assertEquals(List.of("GET /users query:sort"), diff.getParameters().getRemoved());
+        assertEquals(List.of("GET /users query:limit"), diff.getParameters().getChanged());
+
+        assertEquals(List.of("schemas/Page"), diff.getComponents().getAdded());
+        assertEquals(List.of("schemas/Legacy"), diff.getComponents().getRemoved());
+        assertEquals(List.of("schemas/User"), diff.getComponents().getChanged());
+    }
+
+    @Test
+    void testCompare_IdenticalDocumentsHaveEmptyDiff() {
+        SchemaDiff diff = OpenApiDiff.compare(parse(BASE), parse(BASE));
+
+        assertTrue(diff.getPaths().getAdded().isEmpty());
+        assertTrue(diff.getPaths().getChanged().isEmpty());
+        assertTrue(diff.getOperations().getChanged().isEmpty());
+        assertTrue(diff.getParameters().getChanged().isEmpty());
+        assertTrue(diff.getComponents().getChanged().isEmpty());
+    }
+
+    private static OpenAPI parse(String content) {
+        return new OpenAPIV3Parser().readContents(content, null, null).getOpenAPI();
+    }
+}
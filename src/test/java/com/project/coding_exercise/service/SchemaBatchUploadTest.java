@@ -0,0 +1,175 @@
+package com.project.coding_exercise.service;
+
+import com.project.coding_exercise.db.dto.BatchUploadResponse;
+import com.project.coding_exercise.db.dto.BatchUploadResult;
+import com.project.coding_exercise.db.dto.SchemaResponse;
+import com.project.coding_exercise.db.dto.SchemaUploadRequest;
+import com.project.coding_exercise.db.mapper.ApplicationMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:batch-upload;DB_CLOSE_DELAY=-1")
+class SchemaBatchUploadTest {
+
+    private static final String JSON_SPEC = """
+            {
+                "openapi": "3.0.0",
+                "info": {
+                    "title": "Test API",
+                    "version": "1.0.0"
+                },
+                "paths": {}
+            }
+            """;
+
+    private static final String YAML_SPEC = """
+            openapi: 3.0.0
+            info:
+              title: Test API
+              version: 1.0.0
+            paths: {}
+            """;
+
+    @TempDir
+    static Path storageDir;
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("schema.storage.path", () -> storageDir.toString());
+    }
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @Autowired
+    private ApplicationMapper applicationMapper;
+
+    @Test
+    void testUploadSchemas_ReportsPerFileResults() throws Exception {
+        BatchUploadResponse response = schemaService.uploadSchemas("batch-app", List.of(
+                file("users.json", JSON_SPEC),
+                file("orders.yaml", YAML_SPEC),
+                file("broken.json", "{\"invalid\": \"json\"}")), null);
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+
+        BatchUploadResult users = response.getResults().get(0);
+        assertTrue(users.isSuccess());
+        assertEquals("users", users.getServiceName());
+        assertEquals(1, users.getVersion());
+        assertNotNull(users.getId());
+
+        BatchUploadResult broken = response.getResults().get(2);
+        assertFalse(broken.isSuccess());
+        assertEquals("broken", broken.getServiceName());
+        assertNotNull(broken.getError());
+
+        assertEquals(1, schemaService.getLatestSchema("batch-app", "orders").getVersion());
+    }
+
+    @Test
+    void testUploadSchemas_ConsecutiveVersionsAndLatestInvalidated() throws Exception {
+        schemaService.uploadSchemas("versioned-app", List.of(file("users.json", JSON_SPEC)), null);
+        assertEquals(1, schemaService.getLatestSchema("versioned-app", "users").getVersion());
+
+        BatchUploadResponse response = schemaService.uploadSchemas("versioned-app", List.of(
+                file("users.json", JSON_SPEC),
+                file("users.yaml", YAML_SPEC)), null);
+
+        assertEquals(2, response.getResults().get(0).getVersion());
+        assertEquals(3, response.getResults().get(1).getVersion());
+        assertEquals(3, schemaService.getLatestSchema("versioned-app", "users").getVersion());
+    }
+
+    @Test
+    void testUploadSchemas_FailedRegistrationLeavesNoApplicationOrServices() {
+        String tooLong = "s".repeat(300);
+
+        assertThrows(DataAccessException.class, () -> schemaService.uploadSchemas("rolled-back-app", List.of(
+                file("users.json", JSON_SPEC),
+                file(tooLong + ".yaml", YAML_SPEC)), null));
+
+        assertNull(applicationMapper.findByName("rolled-back-app"));
+    }
+
+    @Test
+    void testUploadSchemas_ZipArchive() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("specs/"));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("specs/payments.json"));
+            zip.write(JSON_SPEC.getBytes());
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("specs/inventory.yml"));
+            zip.write(YAML_SPEC.getBytes());
+            zip.closeEntry();
+        }
+        MultipartFile archive = new MockMultipartFile("archive", "release.zip", "application/zip", bytes.toByteArray());
+
+        BatchUploadResponse response = schemaService.uploadSchemas("zip-app", null, archive);
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals("payments", response.getResults().get(0).getServiceName());
+        assertEquals("inventory", response.getResults().get(1).getServiceName());
+        assertEquals(YAML_SPEC, schemaService.getLatestSchema("zip-app", "inventory").getContent());
+    }
+
+    @Test
+    void testUploadSchemas_ServiceCreatedByConcurrentSingleUpload() throws Exception {
+        schemaService.uploadSchemas("racing-app", List.of(file("seed.json", JSON_SPEC)), null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                String serviceName = "service-" + round;
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<SchemaResponse> single = executor.submit(() -> {
+                    SchemaUploadRequest request = new SchemaUploadRequest();
+                    request.setApplicationName("racing-app");
+                    request.setServiceName(serviceName);
+                    request.setFile(file(serviceName + ".json", JSON_SPEC));
+                    start.await();
+                    return schemaService.uploadSchema(request);
+                });
+                Future<BatchUploadResponse> batch = executor.submit(() -> {
+                    start.await();
+                    return schemaService.uploadSchemas("racing-app", List.of(file(serviceName + ".yaml", YAML_SPEC)), null);
+                });
+
+                int singleVersion = single.get(30, TimeUnit.SECONDS).getVersion();
+                BatchUploadResponse response = batch.get(30, TimeUnit.SECONDS);
+                assertEquals(1, response.getSucceeded(), serviceName);
+                assertEquals(Set.of(1, 2), Set.of(singleVersion, response.getResults().get(0).getVersion()), serviceName);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("files", name, "application/octet-stream", content.getBytes());
+    }
+}
@@ -0,0 +1,235 @@
+package com.project.coding_exercise.service;
+
+import com.project.coding_exercise.serviceImpl.SchemaRefStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaRefStoreTest {
+
+    private static final String COMMON = """
+            components:
+              schemas:
+                Error:
+                  type: object
+                  properties:
+                    message:
+                      type: string
+                    detail:
+                      $ref: 'detail.yaml#/components/schemas/Detail'
+            """;
+
+    private static final String DETAIL = """
+            components:
+              schemas:
+                Detail:
+                  type: string
+            """;
+
+    private static final String WRAPPER = """
+            components:
+              schemas:
+                Wrapper:
+                  $ref: 'flaky.yaml#/components/schemas/Detail'
+            """;
+
+    @TempDir
+    Path storageDir;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final CountDownLatch slowRelease = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        serve("/shared/common.yaml", COMMON);
+        serve("/shared/detail.yaml", DETAIL);
+        server.createContext("/shared/slow.yaml", exchange -> {
+            hits.computeIfAbsent("/shared/slow.yaml", p -> new AtomicInteger()).incrementAndGet();
+            try {
+                slowRelease.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, DETAIL);
+        });
+        server.createContext("/shared/flaky.yaml", exchange -> {
+            int hit = hits.computeIfAbsent("/shared/flaky.yaml", p -> new AtomicInteger()).incrementAndGet();
+            respond(exchange, hit == 1 ? 503 : 200, DETAIL);
+        });
+        serve("/shared/wrapper.yaml", WRAPPER);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowRelease.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void testLocalize_FetchesEachDocumentOnceAndResolvesLocally() throws Exception {
+        SchemaRefStore store = newStore(false);
+        String spec = spec(baseUrl() + "/shared/common.yaml#/components/schemas/Error");
+
+        String first = store.localize(spec);
+        String second = store.localize(spec);
+
+        assertEquals(first, second);
+        assertFalse(first.contains(baseUrl()));
+        assertEquals(1, hits.get("/shared/common.yaml").get());
+        assertEquals(1, hits.get("/shared/detail.yaml").get());
+        assertEquals(2, store.size());
+
+        SwaggerParseResult result = parse(first);
+        assertTrue(result.getMessages().isEmpty(), result.getMessages().toString());
+        assertTrue(result.getOpenAPI().getComponents().getSchemas().containsKey("Error"));
+        assertTrue(result.getOpenAPI().getComponents().getSchemas().containsKey("Detail"));
+    }
+
+    @Test
+    void testLocalize_OfflineServesPinnedDocumentsFromIndex() throws Exception {
+        String spec = spec(baseUrl() + "/shared/common.yaml#/components/schemas/Error");
+        String online = newStore(false).localize(spec);
+        server.stop(0);
+
+        SchemaRefStore offline = newStore(true);
+
+        assertEquals(online, offline.localize(spec));
+        assertThrows(IOException.class, () -> offline.localize(spec(baseUrl() + "/shared/other.yaml#/components/schemas/Error")));
+    }
+
+    @Test
+    void testLocalize_ConcurrentCallersShareOneFetchWithoutBlockingOtherUrls() throws Exception {
+        SchemaRefStore store = newStore(false);
+        String slowSpec = spec(baseUrl() + "/shared/slow.yaml#/components/schemas/Detail");
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> localized = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                localized.add(callers.submit(() -> store.localize(slowSpec)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!hits.containsKey("/shared/slow.yaml") && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            // another URL is pinned while the slow download is still in flight
+            assertFalse(store.localize(spec(baseUrl() + "/shared/common.yaml#/components/schemas/Error")).contains(baseUrl()));
+            assertFalse(localized.get(0).isDone());
+
+            slowRelease.countDown();
+            for (Future<String> result : localized) {
+                assertEquals(localized.get(0).get(5, TimeUnit.SECONDS), result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, hits.get("/shared/slow.yaml").get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLocalize_FailedFetchIsRetried() throws Exception {
+        SchemaRefStore store = newStore(false);
+        String spec = spec(baseUrl() + "/shared/flaky.yaml#/components/schemas/Detail");
+
+        assertThrows(SchemaRefUnavailableException.class, () -> store.localize(spec));
+        assertEquals(0, store.size());
+
+        assertFalse(store.localize(spec).contains(baseUrl()));
+        assertEquals(2, hits.get("/shared/flaky.yaml").get());
+    }
+
+    @Test
+    void testLocalize_FailedNestedFetchIsRetried() throws Exception {
+        SchemaRefStore store = newStore(false);
+        String spec = spec(baseUrl() + "/shared/wrapper.yaml#/components/schemas/Wrapper");
+
+        assertThrows(SchemaRefUnavailableException.class, () -> store.localize(spec));
+        assertEquals(0, store.size());
+        assertEquals(Map.of(), ReflectionTestUtils.getField(store, "fetches"));
+
+        assertFalse(store.localize(spec).contains(baseUrl()));
+        assertEquals(2, store.size());
+        assertEquals(2, hits.get("/shared/wrapper.yaml").get());
+        assertEquals(2, hits.get("/shared/flaky.yaml").get());
+    }
+
+    @Test
+    void testLocalize_LeavesLocalRefsUntouched() throws Exception {
+        SchemaRefStore store = newStore(true);
+        String spec = spec("#/components/schemas/Error");
+
+        assertSame(spec, store.localize(spec));
+    }
+
+    private SchemaRefStore newStore(boolean offline) {
+        SchemaRefStore store = new SchemaRefStore();
+        ReflectionTestUtils.setField(store, "storagePath", storageDir.toString());
+        ReflectionTestUtils.setField(store, "offline", offline);
+        return store;
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void serve(String path, String body) {
+        server.createContext(path, exchange -> {
+            hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            respond(exchange, 200, body);
+        });
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String spec(String ref) {
+        return """
+                {"openapi": "3.0.0", "info": {"title": "Ref API", "version": "1.0.0"},
+                 "paths": {"/items": {"get": {"responses": {"400": {"description": "Bad request",
+                   "content": {"application/json": {"schema": {"$ref": "%s"}}}}}}}}}
+                """.formatted(ref);
+    }
+
+    private static SwaggerParseResult parse(String content) {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        return new OpenAPIV3Parser().readContents(content, null, options);
+    }
+}
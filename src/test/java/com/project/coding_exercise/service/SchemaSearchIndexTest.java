@@ -0,0 +1,97 @@
+package com.project.coding_exercise.service;
+
+import com.project.coding_exercise.db.dto.SchemaSearchHit;
+import com.project.coding_exercise.serviceImpl.SchemaSearchIndex;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaSearchIndexTest {
+
+    private static final String USERS = """
+        openapi: 3.0.0
+        info:
+          title: Users
+          version: 1.0.0
+        tags:
+          - name: users
+        paths:
+          /users/{userId}:
+            get:
+              operationId: getUser
+              responses:
+                '200':
+                  description: OK
+        components:
+          schemas:
+            User:
+              type: object
+        """;
+
+    private static final String ORDERS = """
+        openapi: 3.0.0
+        info:
+          title: Orders
+          version: 1.0.0
+        paths:
+          /orders:
+            post:
+              operationId: createOrder
+              tags: [orders]
+              responses:
+                '201':
+                  description: Created
+          /users/{id}:
+            delete:
+              responses:
+                '204':
+                  description: Deleted
+        components:
+          schemas:
+            User:
+              type: object
+        """;
+
+    private final SchemaSearchIndex index = new SchemaSearchIndex();
+
+    @Test
+    void testSearch_MatchesTermsAcrossServices() {
+        index.index("shop", "users", 1, parse(USERS));
+        index.index("shop", "orders", 3, parse(ORDERS));
+
+        assertEquals(List.of("orders", "users"), services(index.search(List.of(SchemaSearchIndex.pathTerm("/users/{id}")))));
+        assertEquals(List.of("users"), services(index.search(List.of(SchemaSearchIndex.operationTerm("get", "/users/{x}")))));
+        assertEquals(List.of("orders"), services(index.search(List.of(SchemaSearchIndex.operationIdTerm("createOrder")))));
+        assertEquals(List.of("orders"), services(index.search(List.of(SchemaSearchIndex.tagTerm("orders")))));
+        assertEquals(List.of("orders", "users"), services(index.search(List.of(SchemaSearchIndex.componentTerm("User")))));
+        assertEquals(List.of("orders"), services(index.search(List.of(
+                SchemaSearchIndex.componentTerm("User"), SchemaSearchIndex.methodTerm("POST")))));
+        assertEquals(3, index.search(List.of(SchemaSearchIndex.operationIdTerm("createOrder"))).get(0).getVersion());
+        assertTrue(index.search(List.of(SchemaSearchIndex.operationIdTerm("missing"))).isEmpty());
+    }
+
+    @Test
+    void testIndex_NewVersionReplacesOlderAndOlderIsIgnored() {
+        index.index("shop", "users", 1, parse(USERS));
+        index.index("shop", "users", 2, parse(ORDERS));
+        index.index("shop", "users", 1, parse(USERS));
+
+        assertTrue(index.search(List.of(SchemaSearchIndex.operationIdTerm("getUser"))).isEmpty());
+        List<SchemaSearchHit> hits = index.search(List.of(SchemaSearchIndex.operationIdTerm("createOrder")));
+        assertEquals(1, hits.size());
+        assertEquals(2, hits.get(0).getVersion());
+        assertEquals(1, index.size());
+    }
+
+    private static List<String> services(List<SchemaSearchHit> hits) {
+        return hits.stream().map(SchemaSearchHit::getServiceName).toList();
+    }
+
+    private static OpenAPI parse(String content) {
+        return new OpenAPIV3Parser().readContents(content, null, null).getOpenAPI();
+    }
+}
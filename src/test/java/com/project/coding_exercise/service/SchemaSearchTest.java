@@ -0,0 +1,85 @@
+package com.project.coding_exercise.service;
+
+import com.project.coding_exercise.db.dto.SchemaSearchHit;
+import com.project.coding_exercise.db.dto.SchemaUploadRequest;
+import com.project.coding_exercise.serviceImpl.SchemaSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:schema-search;DB_CLOSE_DELAY=-1")
+class SchemaSearchTest {
+
+    @TempDir
+    static Path storageDir;
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("schema.storage.path", () -> storageDir.toString());
+    }
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @Autowired
+    private SchemaSearchIndex searchIndex;
+
+    @Test
+    void testSearch_IndexedOnUploadAndRebuiltFromStorage() throws Exception {
+        upload("search-app", "accounts", spec("getAccount", "/accounts/{id}"));
+        upload("search-app", "accounts", spec("getAccountV2", "/v2/accounts/{id}"));
+        upload("search-app", null, spec("health", "/health"));
+
+        assertEquals(List.of(), schemaService.searchSchemas(null, null, "getAccount", null, null));
+        assertHit(schemaService.searchSchemas("/v2/accounts/{accountId}", "get", null, null, null), "accounts", 2);
+        assertHit(schemaService.searchSchemas(null, null, "health", null, null), null, 1);
+
+        searchIndex.clear();
+        assertTrue(schemaService.searchSchemas(null, null, "getAccountV2", null, null).isEmpty());
+
+        assertTrue(schemaService.rebuildSearchIndex() >= 2);
+        assertHit(schemaService.searchSchemas(null, null, "getAccountV2", null, null), "accounts", 2);
+        assertHit(schemaService.searchSchemas("/health", null, null, null, null), null, 1);
+        assertEquals(List.of(), schemaService.searchSchemas(null, null, "getAccount", null, null));
+    }
+
+    @Test
+    void testSearch_RequiresACriterion() {
+        assertThrows(IllegalArgumentException.class, () -> schemaService.searchSchemas(null, " ", null, null, null));
+    }
+
+    private static void assertHit(List<SchemaSearchHit> hits, String serviceName, int version) {
+        assertEquals(1, hits.size());
+        assertEquals("search-app", hits.get(0).getApplicationName());
+        assertEquals(serviceName, hits.get(0).getServiceName());
+        assertEquals(version, hits.get(0).getVersion());
+    }
+
+    private void upload(String applicationName, String serviceName, String content) throws Exception {
+        SchemaUploadRequest request = new SchemaUploadRequest();
+        request.setApplicationName(applicationName);
+        request.setServiceName(serviceName);
+        request.setFile(new MockMultipartFile("file", "spec.json", "application/json", content.getBytes()));
+        schemaService.uploadSchema(request);
+    }
+
+    private static String spec(String operationId, String path) {
+        return """
+            {"openapi": "3.0.0", "info": {"title": "Test API", "version": "1.0.0"},
+             "paths": {"%s": {"get": {"operationId": "%s",
+                 "parameters": %s,
+                 "responses": {"200": {"description": "OK"}}}}}}
+            """.formatted(path, operationId, path.contains("{id}")
+                ? "[{\"name\": \"id\", \"in\": \"path\", \"required\": true, \"schema\": {\"type\": \"string\"}}]"
+                : "[]");
+    }
+}
@@ -1,17 +1,35 @@
 package com.project.coding_exercise.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.coding_exercise.cache.OpenApiParseCache;
+import com.project.coding_exercise.cache.SchemaDiffCache;
+import com.project.coding_exercise.cache.SchemaResponseCache;
+import com.project.coding_exercise.db.dto.RawSchemaContent;
+import com.project.coding_exercise.db.dto.SchemaDiff;
 import com.project.coding_exercise.db.dto.SchemaResponse;
+import com.project.coding_exercise.db.dto.SchemaUploadJob;
 import com.project.coding_exercise.db.dto.SchemaUploadRequest;
+import com.project.coding_exercise.db.dto.SchemaVersionPage;
 import com.project.coding_exercise.db.mapper.ApplicationMapper;
 import com.project.coding_exercise.db.mapper.SchemaMapper;
 import com.project.coding_exercise.db.mapper.ServiceMapper;
 import com.project.coding_exercise.db.model.Application;
 import com.project.coding_exercise.db.model.Schema;
+import com.project.coding_exercise.db.model.SchemaDetails;
 import com.project.coding_exercise.db.model.Service;
+import com.project.coding_exercise.serviceImpl.SchemaMetrics;
+import com.project.coding_exercise.serviceImpl.SchemaRefStore;
+import com.project.coding_exercise.serviceImpl.SchemaRenditions;
+import com.project.coding_exercise.serviceImpl.SchemaSearchIndex;
 import com.project.coding_exercise.serviceImpl.SchemaServiceImpl;
+import com.project.coding_exercise.serviceImpl.SchemaStorageServiceImpl;
+import com.project.coding_exercise.serviceImpl.SchemaUploadJobs;
+import com.project.coding_exercise.serviceImpl.VersionAllocationLocks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -19,11 +37,26 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -48,9 +81,74 @@ class SchemaServiceTest {
     @InjectMocks
     private SchemaServiceImpl schemaService;
 
+    @TempDir
+    Path storageDir;
+
+    private OpenApiParseCache parseCache;
+
+    private SchemaDiffCache diffCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(schemaService, "storagePath", "./test-schemas");
+        SchemaStorageServiceImpl storageService = new SchemaStorageServiceImpl();
+        ReflectionTestUtils.setField(storageService, "storagePath", storageDir.toString());
+        ReflectionTestUtils.setField(schemaService, "storageService", storageService);
+        ReflectionTestUtils.setField(schemaService, "schemaCache", new SchemaResponseCache(1 << 20));
+        parseCache = new OpenApiParseCache(1 << 20);
+        ReflectionTestUtils.setField(schemaService, "parseCache", parseCache);
+        ReflectionTestUtils.setField(schemaService, "versionLocks", new VersionAllocationLocks(4));
+        diffCache = new SchemaDiffCache(100);
+        ReflectionTestUtils.setField(schemaService, "diffCache", diffCache);
+        ReflectionTestUtils.setField(schemaService, "schemaDiffExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(schemaService, "searchIndex", new SchemaSearchIndex());
+        ReflectionTestUtils.setField(schemaService, "uploadJobs", new SchemaUploadJobs(60, 1, 0));
+        SchemaRefStore refStore = new SchemaRefStore();
+        ReflectionTestUtils.setField(refStore, "storagePath", storageDir.toString());
+        ReflectionTestUtils.setField(schemaService, "refStore", refStore);
+        SchemaRenditions renditions = new SchemaRenditions();
+        ReflectionTestUtils.setField(renditions, "storageService", storageService);
+        ReflectionTestUtils.setField(renditions, "storagePath", storageDir.toString());
+        ReflectionTestUtils.setField(schemaService, "renditions", renditions);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(schemaService, "metrics", new SchemaMetrics(meterRegistry, parseCache, diffCache, true));
+        ReflectionTestUtils.setField(schemaService, "schemaUploadExecutor", directExecutor(false));
+    }
+
+    private static ExecutorService directExecutor(boolean rejecting) {
+        return new AbstractExecutorService() {
+            @Override
+            public void execute(Runnable command) {
+                if (rejecting) {
+                    throw new RejectedExecutionException("queue full");
+                }
+                command.run();
+            }
+
+            @Override
+            public void shutdown() {}
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                return List.of();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return false;
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return false;
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) {
+                return true;
+            }
+        };
     }
 
     @Test
@@ -145,21 +243,121 @@ class SchemaServiceTest {
         verify(applicationMapper, never()).insert(any(Application.class));
     }
 
+    @Test
+    void testSubmitUpload_RunsJobAndRecordsResult() throws Exception {
+        String openApiContent = "{\"openapi\": \"3.0.0\", \"info\": {\"title\": \"Async API\", \"version\": \"1.0.0\"}, \"paths\": {}}";
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(openApiContent.getBytes()));
+        when(schemaMapper.findMaxVersionByApplicationAndService(any(), any())).thenReturn(0);
+
+        SchemaUploadRequest request = new SchemaUploadRequest();
+        request.setApplicationName("async-app");
+        request.setServiceName("async-service");
+        request.setFile(multipartFile);
+
+        SchemaUploadJob job = schemaService.submitUpload(request);
+
+        assertSame(job, schemaService.getUploadJob(job.getJobId()));
+        assertEquals(SchemaUploadJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals(1, job.getResult().getVersion());
+        assertEquals("async-service", job.getResult().getServiceName());
+        assertNotNull(job.getCompletedAt());
+    }
+
+    @Test
+    void testSubmitUpload_InvalidSpecFailsJob() throws Exception {
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("not a spec".getBytes()));
+
+        SchemaUploadRequest request = new SchemaUploadRequest();
+        request.setApplicationName("async-app");
+        request.setFile(multipartFile);
+
+        SchemaUploadJob job = schemaService.submitUpload(request);
+
+        assertEquals(SchemaUploadJob.Status.FAILED, job.getStatus());
+        assertEquals("Invalid OpenAPI specification", job.getError());
+        verify(schemaMapper, never()).insert(any(Schema.class));
+    }
+
+    @Test
+    void testSubmitUpload_QueueFullDiscardsSpool() throws Exception {
+        ReflectionTestUtils.setField(schemaService, "schemaUploadExecutor", directExecutor(true));
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("{}".getBytes()));
+
+        SchemaUploadRequest request = new SchemaUploadRequest();
+        request.setApplicationName("async-app");
+        request.setFile(multipartFile);
+
+        assertThrows(RejectedExecutionException.class, () -> schemaService.submitUpload(request));
+
+        try (Stream<Path> files = Files.walk(storageDir)) {
+            assertTrue(files.noneMatch(Files::isRegularFile));
+        }
+    }
+
+    @Test
+    void testSubmitUpload_NoFreeSlotRejectsBeforeSpooling() throws Exception {
+        SchemaUploadJobs uploadJobs = (SchemaUploadJobs) ReflectionTestUtils.getField(schemaService, "uploadJobs");
+        assertTrue(uploadJobs.tryReserveSlot());
+
+        SchemaUploadRequest request = new SchemaUploadRequest();
+        request.setApplicationName("async-app");
+        request.setFile(multipartFile);
+
+        assertThrows(RejectedExecutionException.class, () -> schemaService.submitUpload(request));
+        verify(multipartFile, never()).getInputStream();
+    }
+
+    @Test
+    void testSubmitUpload_ReleasesSlotWhenSpoolFails() throws Exception {
+        when(multipartFile.getInputStream()).thenThrow(new IOException("client went away"));
+
+        SchemaUploadRequest request = new SchemaUploadRequest();
+        request.setApplicationName("async-app");
+        request.setFile(multipartFile);
+
+        assertThrows(IOException.class, () -> schemaService.submitUpload(request));
+        SchemaUploadJobs uploadJobs = (SchemaUploadJobs) ReflectionTestUtils.getField(schemaService, "uploadJobs");
+        assertTrue(uploadJobs.tryReserveSlot());
+    }
+
+    @Test
+    void testUploadSchema_RecordsStageTimersAndCounters() throws Exception {
+        String openApiContent = "{\"openapi\": \"3.0.0\", \"info\": {\"title\": \"Metered API\", \"version\": \"1.0.0\"}, \"paths\": {}}";
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(openApiContent.getBytes()));
+        when(schemaMapper.findMaxVersionByApplicationAndService(any(), any())).thenReturn(0);
+
+        SchemaUploadRequest request = new SchemaUploadRequest();
+        request.setApplicationName("metered-app");
+        request.setServiceName("metered-service");
+        request.setFile(multipartFile);
+        schemaService.uploadSchema(request);
+
+        for (String stage : List.of("validate", "application-lookup", "service-lookup", "base-lookup", "blob-write",
+                "version-lock", "version-insert", "publish", "total")) {
+            assertEquals(1, meterRegistry.get(SchemaMetrics.UPLOAD_STAGE).tag("stage", stage).timer().count(), stage);
+        }
+        assertEquals(1, meterRegistry.get(SchemaMetrics.UPLOADS)
+                .tags("application", "metered-app", "outcome", "stored").counter().count());
+        assertEquals(openApiContent.length(), meterRegistry.get(SchemaMetrics.UPLOAD_PAYLOAD)
+                .tag("application", "metered-app").summary().totalAmount());
+
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("not a spec".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> schemaService.uploadSchema(request));
+
+        assertEquals(1, meterRegistry.get(SchemaMetrics.VALIDATION_FAILURES).tag("application", "all").counter().count());
+        assertEquals(1, meterRegistry.get(SchemaMetrics.UPLOADS)
+                .tags("application", "all", "outcome", "invalid").counter().count());
+        assertNull(meterRegistry.find(SchemaMetrics.UPLOADS).tags("application", "metered-app", "outcome", "invalid").counter());
+    }
+
     @Test
     void testGetLatestSchema() throws Exception {
         String applicationName = "test-app";
         String serviceName = "test-service";
-        Application app = new Application(applicationName);
-        app.setId(1L);
-        Service service = new Service(1L, serviceName);
-        service.setId(1L);
-        Schema schema = new Schema(1L, 1L, 2, "/path/to/schema.json");
-        schema.setId(1L);
+        SchemaDetails schema = schemaDetails(1L, 1L, 2);
         schema.setUploadedAt(LocalDateTime.now());
 
-        when(applicationMapper.findByName(applicationName)).thenReturn(app);
-        when(serviceMapper.findByApplicationIdAndName(1L, serviceName)).thenReturn(service);
-        when(schemaMapper.findLatestByApplicationAndService(1L, 1L)).thenReturn(schema);
+        when(schemaMapper.findLatestByApplicationNameAndServiceName(applicationName, serviceName)).thenReturn(schema);
 
         Path tempFile = Files.createTempFile("test-schema", ".json");
         Files.write(tempFile, "{\"openapi\": \"3.0.0\"}".getBytes());
@@ -181,17 +379,10 @@ class SchemaServiceTest {
         String applicationName = "test-app";
         String serviceName = "test-service";
         Integer version = 1;
-        Application app = new Application(applicationName);
-        app.setId(1L);
-        Service service = new Service(1L, serviceName);
-        service.setId(1L);
-        Schema schema = new Schema(1L, 1L, version, "/path/to/schema.json");
-        schema.setId(1L);
+        SchemaDetails schema = schemaDetails(1L, 1L, version);
         schema.setUploadedAt(LocalDateTime.now());
 
-        when(applicationMapper.findByName(applicationName)).thenReturn(app);
-        when(serviceMapper.findByApplicationIdAndName(1L, serviceName)).thenReturn(service);
-        when(schemaMapper.findByApplicationServiceAndVersion(1L, 1L, version)).thenReturn(schema);
+        when(schemaMapper.findByApplicationNameServiceNameAndVersion(applicationName, serviceName, version)).thenReturn(schema);
 
         Path tempFile = Files.createTempFile("test-schema", ".json");
         Files.write(tempFile, "{\"openapi\": \"3.0.0\"}".getBytes());
@@ -208,6 +399,282 @@ class SchemaServiceTest {
         Files.deleteIfExists(tempFile);
     }
 
+    @Test
+    void testGetLatestSchema_ServedFromCache() throws Exception {
+        SchemaDetails schema = schemaDetails(7L, null, 4);
+
+        Path tempFile = Files.createTempFile("test-schema", ".json");
+        Files.write(tempFile, "{\"openapi\": \"3.0.0\"}".getBytes());
+        schema.setFilePath(tempFile.toString());
+
+        when(schemaMapper.findLatestByApplicationName("test-app")).thenReturn(schema);
+
+        SchemaResponse first = schemaService.getLatestSchema("test-app", null);
+        Files.deleteIfExists(tempFile);
+        SchemaResponse second = schemaService.getLatestSchema("test-app", null);
+
+        assertSame(first, second);
+        verify(schemaMapper, times(1)).findLatestByApplicationName("test-app");
+        assertEquals(1, schemaService.getCacheStats().getHits());
+        assertEquals(1, schemaService.getCacheStats().getMisses());
+        assertEquals(1, meterRegistry.get(SchemaMetrics.CACHE_REQUESTS).tags("application", "test-app", "result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get(SchemaMetrics.CACHE_REQUESTS).tags("application", "test-app", "result", "miss").counter().count());
+    }
+
+    @Test
+    void testGetLatestSchema_UnknownApplicationAddsNoMeter() {
+        assertThrows(IllegalArgumentException.class, () -> schemaService.getLatestSchema("made-up-app", null));
+        assertThrows(IllegalArgumentException.class, () -> schemaService.getSchemaMetadataByVersion("made-up-app", null, 1));
+
+        assertNull(meterRegistry.find(SchemaMetrics.CACHE_REQUESTS).tag("application", "made-up-app").counter());
+        assertEquals(2, meterRegistry.get(SchemaMetrics.CACHE_REQUESTS).tags("application", "all", "result", "miss").counter().count());
+    }
+
+    @Test
+    void testUploadSchema_InvalidatesCachedLatest() throws Exception {
+        Application app = new Application("test-app");
+        app.setId(1L);
+        SchemaDetails schema = schemaDetails(1L, null, 1);
+
+        Path tempFile = Files.createTempFile("test-schema", ".json");
+        Files.write(tempFile, "{\"openapi\": \"3.0.0\"}".getBytes());
+        schema.setFilePath(tempFile.toString());
+
+        when(applicationMapper.findByName("test-app")).thenReturn(app);
+        when(schemaMapper.findLatestByApplicationName("test-app")).thenReturn(schema);
+        when(schemaMapper.findMaxVersionByApplicationAndService(1L, null)).thenReturn(1);
+        when(multipartFile.getOriginalFilename()).thenReturn("test.json");
+        when(multipartFile.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream("""
+            {
+                "openapi": "3.0.0",
+                "info": {
+                    "title": "Test API",
+                    "version": "1.0.0"
+                },
+                "paths": {}
+            }
+            """.getBytes()));
+
+        schemaService.getLatestSchema("test-app", null);
+
+        SchemaUploadRequest request = new SchemaUploadRequest();
+        request.setApplicationName("test-app");
+        request.setFile(multipartFile);
+        schemaService.uploadSchema(request);
+
+        schemaService.getLatestSchema("test-app", null);
+
+        verify(schemaMapper, times(2)).findLatestByApplicationName("test-app");
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    void testGetRawSchemaByVersion_DetectsYaml() throws Exception {
+        SchemaDetails schema = schemaDetails(3L, null, 1);
+
+        Path tempFile = Files.createTempFile("test-schema", ".yaml");
+        Files.writeString(tempFile, "\nopenapi: 3.0.0\n");
+        schema.setFilePath(tempFile.toString());
+
+        when(schemaMapper.findByApplicationNameAndVersion("test-app", 1)).thenReturn(schema);
+
+        RawSchemaContent raw = schemaService.getRawSchemaByVersion("test-app", null, 1);
+
+        assertEquals("application/yaml", raw.getMediaType());
+        assertEquals(tempFile, raw.openBlob().getPath());
+        assertNull(raw.getContentHash());
+
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    void testGetRawSchemaFragmentByVersion_ExtractsOnlyTheAddressedSubtree() throws Exception {
+        SchemaStorageService storageService = (SchemaStorageService) ReflectionTestUtils.getField(schemaService, "storageService");
+        SchemaDetails json = schemaDetails(31L, 2L, 1);
+        json.setFilePath(storageService.commit(storageService.spool(new ByteArrayInputStream("""
+            {"openapi": "3.0.0", "paths": {"/orders": {"get": {"tags": ["a", "b"]}}},
+             "components": {"schemas": {"Customer": {"type": "object"},
+                                        "Order": {"type": "object", "properties": {"id": {"type": "string"}}}}}}
+            """.getBytes()))));
+        SchemaDetails yaml = schemaDetails(32L, 2L, 2);
+        yaml.setFilePath(storageService.commit(storageService.spool(new ByteArrayInputStream("""
+            openapi: 3.0.0
+            paths:
+              /orders:
+                get:
+                  tags: [a, b]
+            """.getBytes()))));
+        when(schemaMapper.findByApplicationNameServiceNameAndVersion("test-app", "test-service", 1)).thenReturn(json);
+        when(schemaMapper.findByApplicationNameServiceNameAndVersion("test-app", "test-service", 2)).thenReturn(yaml);
+
+        RawSchemaContent order = schemaService.getRawSchemaFragmentByVersion("test-app", "test-service", 1, "#/components/schemas/Order", null);
+        assertEquals("application/json", order.getMediaType());
+        assertEquals("{\"type\":\"object\",\"properties\":{\"id\":{\"type\":\"string\"}}}", new String(order.openBlob().getContent()));
+        assertNotEquals(json.getFilePath(), order.getContentHash());
+
+        RawSchemaContent tag = schemaService.getRawSchemaFragmentByVersion("test-app", "test-service", 2, "/paths/~1orders/get/tags/1", null);
+        assertEquals("application/yaml", tag.getMediaType());
+        assertEquals("b", new String(tag.openBlob().getContent()).trim());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> schemaService.getRawSchemaFragmentByVersion("test-app", "test-service", 1, "/components/schemas/Missing", null).openBlob());
+        assertThrows(InvalidSchemaPointerException.class,
+                () -> schemaService.getRawSchemaFragmentByVersion("test-app", "test-service", 1, "components", null));
+        assertThrows(InvalidSchemaPointerException.class,
+                () -> schemaService.getRawSchemaFragmentByVersion("test-app", "test-service", 1, "/components/a~2b", null));
+
+        schemaService.getSchemaByVersion("test-app", "test-service", 1);
+        RawSchemaContent fromCache = schemaService.getRawSchemaFragmentByVersion("test-app", "test-service", 1, "/components/schemas/Customer", null);
+        assertEquals("{\"type\":\"object\"}", new String(fromCache.openBlob().getContent()));
+    }
+
+    @Test
+    void testGetRawSchemaFragmentByVersion_ResolvesAliasesAndServesTheWholeDocumentForTheEmptyPointer() throws Exception {
+        SchemaStorageService storageService = (SchemaStorageService) ReflectionTestUtils.getField(schemaService, "storageService");
+        SchemaDetails yaml = schemaDetails(35L, 2L, 4);
+        yaml.setFilePath(storageService.commit(storageService.spool(new ByteArrayInputStream("""
+            openapi: 3.0.0
+            components:
+              schemas:
+                Base: &base
+                  type: object
+                  description: &text shared
+                  properties:
+                    id: {type: string}
+                Order: *base
+                Note:
+                  description: *text
+                  items: [*base]
+            """.getBytes()))));
+        when(schemaMapper.findByApplicationNameServiceNameAndVersion("test-app", "test-service", 4)).thenReturn(yaml);
+
+        assertEquals("{\"type\":\"object\",\"description\":\"shared\",\"properties\":{\"id\":{\"type\":\"string\"}}}",
+                fragment(4, "/components/schemas/Order"));
+        assertEquals("{\"description\":\"shared\",\"items\":[{\"type\":\"object\",\"description\":\"shared\",\"properties\":{\"id\":{\"type\":\"string\"}}}]}",
+                fragment(4, "/components/schemas/Note"));
+        assertEquals("{\"type\":\"string\"}", fragment(4, "/components/schemas/Order/properties/id"));
+        assertEquals("\"object\"", fragment(4, "/components/schemas/Note/items/0/type"));
+
+        String whole = fragment(4, "");
+        assertTrue(whole.startsWith("{\"openapi\":\"3.0.0\",\"components\""), whole);
+        assertEquals(whole, fragment(4, "#"));
+    }
+
+    private String fragment(int version, String pointer) throws Exception {
+        return new String(schemaService.getRawSchemaFragmentByVersion("test-app", "test-service", version, pointer, "application/json")
+                .openBlob().getContent(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testGetRawSchemaRenditionByVersion_ConvertsOnceAndReusesTheRendition() throws Exception {
+        SchemaStorageService storageService = (SchemaStorageService) ReflectionTestUtils.getField(schemaService, "storageService");
+        SchemaDetails yaml = schemaDetails(33L, 2L, 3);
+        yaml.setFilePath(storageService.commit(storageService.spool(new ByteArrayInputStream("""
+            openapi: 3.0.0
+            info:
+              title: Orders
+              version: "1"
+            paths: {}
+            """.getBytes()))));
+        when(schemaMapper.findByApplicationNameServiceNameAndVersion("test-app", "test-service", 3)).thenReturn(yaml);
+
+        RawSchemaContent json = schemaService.getRawSchemaRenditionByVersion("test-app", "test-service", 3, "application/json");
+        assertEquals("application/json", json.getMediaType());
+        assertEquals(yaml.getFilePath() + "-json-v2", json.getContentHash());
+        assertFalse(Files.exists(storageDir.resolve("renditions")));
+        json.openBlob();
+        Path rendition = storageDir.resolve("renditions").resolve("v2").resolve(yaml.getFilePath() + ".json");
+        assertEquals("{\"openapi\":\"3.0.0\",\"info\":{\"title\":\"Orders\",\"version\":\"1\"},\"paths\":{}}",
+                Files.readString(rendition));
+        assertEquals(rendition, json.openBlob().getPath());
+
+        FileTime written = Files.getLastModifiedTime(rendition);
+        Files.setLastModifiedTime(rendition, FileTime.fromMillis(written.toMillis() - 60_000));
+        schemaService.getRawSchemaRenditionByVersion("test-app", "test-service", 3, "application/json").openBlob();
+        assertEquals(written.toMillis() - 60_000, Files.getLastModifiedTime(rendition).toMillis());
+
+        RawSchemaContent same = schemaService.getRawSchemaRenditionByVersion("test-app", "test-service", 3, "application/yaml");
+        assertEquals(yaml.getFilePath(), same.getContentHash());
+        assertFalse(Files.exists(storageDir.resolve("renditions").resolve("v2").resolve(yaml.getFilePath() + ".yaml")));
+    }
+
+    @Test
+    void testGetRawSchemaRenditionByVersion_RoundTripsAnchorsAndNumericLookingStrings() throws Exception {
+        SchemaStorageService storageService = (SchemaStorageService) ReflectionTestUtils.getField(schemaService, "storageService");
+        SchemaDetails yaml = schemaDetails(36L, 2L, 5);
+        yaml.setFilePath(storageService.commit(storageService.spool(new ByteArrayInputStream("""
+            openapi: 3.0.0
+            components:
+              schemas:
+                Base: &base
+                  type: object
+                  x-version: &v "1.0"
+                Order: *base
+                Note: {x-version: *v}
+            """.getBytes()))));
+        String json = "{\"openapi\":\"3.0.0\",\"info\":{\"version\":\"1.0\"},\"x-values\":[\"123\",\"1e3\",\"0x1F\",\"true\",\"null\","
+                + "\"yes\",\"~\",\"2024-01-01\",\"1_000\",\".inf\",\"plain\",123,1.5,true,null],\"x-keys\":{\"200\":\"ok\",\"0x1F\":\"hex\"}}";
+        SchemaDetails stored = schemaDetails(37L, 2L, 6);
+        stored.setFilePath(storageService.commit(storageService.spool(new ByteArrayInputStream(json.getBytes()))));
+        when(schemaMapper.findByApplicationNameServiceNameAndVersion("test-app", "test-service", 5)).thenReturn(yaml);
+        when(schemaMapper.findByApplicationNameServiceNameAndVersion("test-app", "test-service", 6)).thenReturn(stored);
+
+        assertEquals("{\"openapi\":\"3.0.0\",\"components\":{\"schemas\":{\"Base\":{\"type\":\"object\",\"x-version\":\"1.0\"},"
+                        + "\"Order\":{\"type\":\"object\",\"x-version\":\"1.0\"},\"Note\":{\"x-version\":\"1.0\"}}}}",
+                rendition(5, "application/json"));
+
+        String rendered = rendition(6, "application/yaml");
+        // read back the way the OpenAPI parser reads YAML, and compared with the source as a tree
+        Object readBack = new Yaml(new SafeConstructor(new LoaderOptions())).load(rendered);
+        assertEquals(new ObjectMapper().readValue(json, Map.class), new ObjectMapper().convertValue(readBack, Map.class), rendered);
+    }
+
+    private String rendition(int version, String mediaType) throws Exception {
+        try (InputStream in = schemaService.getRawSchemaRenditionByVersion("test-app", "test-service", version, mediaType)
+                .openBlob().openStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testRenderSchema_ConvertsContentWithoutTouchingTheGivenResponse() throws Exception {
+        SchemaStorageService storageService = (SchemaStorageService) ReflectionTestUtils.getField(schemaService, "storageService");
+        String content = "{\"openapi\": \"3.0.0\", \"paths\": {}}";
+        SchemaResponse response = new SchemaResponse();
+        response.setId(34L);
+        response.setVersion(1);
+        response.setFilePath(storageService.commit(storageService.spool(new ByteArrayInputStream(content.getBytes()))));
+        response.setContent(content);
+
+        SchemaResponse rendered = schemaService.renderSchema(response, "application/yaml");
+        assertEquals("openapi: 3.0.0\npaths: {}\n", rendered.getContent());
+        assertEquals(34L, rendered.getId());
+        assertEquals(content, response.getContent());
+        assertSame(response, schemaService.renderSchema(response, "application/json"));
+        assertSame(response, schemaService.renderSchema(response, null));
+    }
+
+    @Test
+    void testGetLatestSchema_DistinctNotFoundReasons() {
+        SchemaDetails applicationOnly = new SchemaDetails();
+        applicationOnly.setApplicationId(1L);
+        SchemaDetails serviceWithoutSchema = new SchemaDetails();
+        serviceWithoutSchema.setApplicationId(1L);
+        serviceWithoutSchema.setMatchedServiceId(2L);
+
+        when(schemaMapper.findLatestByApplicationNameAndServiceName("missing-app", "svc")).thenReturn(null);
+        when(schemaMapper.findLatestByApplicationNameAndServiceName("test-app", "missing-svc")).thenReturn(applicationOnly);
+        when(schemaMapper.findLatestByApplicationNameAndServiceName("test-app", "svc")).thenReturn(serviceWithoutSchema);
+
+        assertEquals("Application not found: missing-app", assertThrows(IllegalArgumentException.class,
+                () -> schemaService.getLatestSchema("missing-app", "svc")).getMessage());
+        assertEquals("Service not found: missing-svc", assertThrows(IllegalArgumentException.class,
+                () -> schemaService.getLatestSchema("test-app", "missing-svc")).getMessage());
+        assertEquals("No schema found for application: test-app and service: svc", assertThrows(IllegalArgumentException.class,
+                () -> schemaService.getLatestSchema("test-app", "svc")).getMessage());
+        verifyNoInteractions(applicationMapper, serviceMapper);
+    }
+
     @Test
     void testValidateOpenApiSpec_ValidJson() throws Exception {
         String validOpenApiJson = """
@@ -248,4 +715,167 @@ class SchemaServiceTest {
 
         assertFalse(isValid);
     }
+
+    @Test
+    void testValidateOpenApiSpec_RepeatedContentParsedOnce() throws Exception {
+        String validOpenApiJson = """
+            {
+                "openapi": "3.0.0",
+                "info": {
+                    "title": "Test API",
+                    "version": "1.0.0"
+                },
+                "paths": {}
+            }
+            """;
+
+        when(multipartFile.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(validOpenApiJson.getBytes()));
+
+        assertTrue(schemaService.validateOpenApiSpec(multipartFile));
+        assertTrue(schemaService.validateOpenApiSpec(multipartFile));
+
+        assertEquals(1, parseCache.stats().missCount());
+        assertEquals(1, parseCache.stats().hitCount());
+    }
+
+    @Test
+    void testValidateOpenApiSpec_UnreachableRefIsNotCached() throws Exception {
+        String spec = """
+            {"openapi": "3.0.0", "info": {"title": "Ref API", "version": "1.0.0"},
+             "paths": {"/items": {"get": {"responses": {"200": {"description": "OK",
+               "content": {"application/json": {"schema": {"$ref": "http://localhost:1/common.yaml#/Item"}}}}}}}}}
+            """;
+        when(multipartFile.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(spec.getBytes()));
+
+        assertThrows(SchemaRefUnavailableException.class, () -> schemaService.validateOpenApiSpec(multipartFile));
+        assertThrows(SchemaRefUnavailableException.class, () -> schemaService.validateOpenApiSpec(multipartFile));
+
+        assertEquals(0, parseCache.stats().hitCount());
+    }
+
+    @Test
+    void testGetVersionHistory_PagesWithCursor() throws Exception {
+        Application application = new Application("paged-app");
+        application.setId(1L);
+        Service service = new Service(1L, "paged-service");
+        service.setId(2L);
+        when(applicationMapper.findByName("paged-app")).thenReturn(application);
+        when(serviceMapper.findByApplicationIdAndName(1L, "paged-service")).thenReturn(service);
+        when(schemaMapper.findVersionPage(1L, 2L, Integer.MAX_VALUE, 3))
+                .thenReturn(List.of(schema(10L, 2L, 5), schema(9L, 2L, 4), schema(8L, 2L, 3)));
+        when(schemaMapper.findVersionPage(1L, 2L, 4, 3))
+                .thenReturn(List.of(schema(8L, 2L, 3), schema(7L, 2L, 2)));
+
+        SchemaVersionPage first = schemaService.getVersionHistory("paged-app", "paged-service", null, 2);
+        assertEquals(List.of(5, 4), first.getVersions().stream().map(SchemaResponse::getVersion).toList());
+        assertEquals(4, first.getNextCursor());
+        assertNull(first.getVersions().get(0).getContent());
+
+        SchemaVersionPage second = schemaService.getVersionHistory("paged-app", "paged-service", first.getNextCursor(), 2);
+        assertEquals(List.of(3, 2), second.getVersions().stream().map(SchemaResponse::getVersion).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testGetVersionHistory_ClampsPageSize() throws Exception {
+        Application application = new Application("paged-app");
+        application.setId(1L);
+        when(applicationMapper.findByName("paged-app")).thenReturn(application);
+        when(schemaMapper.findVersionPage(eq(1L), isNull(), anyInt(), anyInt())).thenReturn(List.of());
+
+        SchemaVersionPage page = schemaService.getVersionHistory("paged-app", null, null, 100_000);
+
+        assertEquals(200, page.getLimit());
+        verify(schemaMapper).findVersionPage(1L, null, Integer.MAX_VALUE, 201);
+    }
+
+    @Test
+    void testGetVersionHistory_ServiceNotFound() {
+        Application application = new Application("paged-app");
+        application.setId(1L);
+        when(applicationMapper.findByName("paged-app")).thenReturn(application);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> schemaService.getVersionHistory("paged-app", "missing", null, null));
+        assertEquals("Service not found: missing", e.getMessage());
+        verify(schemaMapper, never()).findVersionPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetSchemaDiff_DefaultsToLatestAgainstPreviousAndIsMemoized() throws Exception {
+        SchemaStorageService storageService = (SchemaStorageService) ReflectionTestUtils.getField(schemaService, "storageService");
+        SchemaDetails v1 = schemaDetails(11L, 2L, 1);
+        v1.setFilePath(storageService.commit(storageService.spool(new ByteArrayInputStream("""
+            {"openapi": "3.0.0", "info": {"title": "Test API", "version": "1.0.0"},
+             "paths": {"/users": {"get": {"responses": {"200": {"description": "OK"}}}}}}
+            """.getBytes()))));
+        SchemaDetails v2 = schemaDetails(12L, 2L, 2);
+        v2.setFilePath(storageService.commit(storageService.spool(new ByteArrayInputStream("""
+            {"openapi": "3.0.0", "info": {"title": "Test API", "version": "1.1.0"},
+             "paths": {"/users": {"get": {"responses": {"200": {"description": "OK"}}}},
+                       "/orders": {"get": {"responses": {"200": {"description": "OK"}}}}}}
+            """.getBytes()))));
+        when(schemaMapper.findLatestByApplicationNameAndServiceName("diff-app", "diff-service")).thenReturn(v2);
+        when(schemaMapper.findByApplicationNameServiceNameAndVersion("diff-app", "diff-service", 1)).thenReturn(v1);
+        when(schemaMapper.findByApplicationNameServiceNameAndVersion("diff-app", "diff-service", 2)).thenReturn(v2);
+
+        SchemaDiff diff = schemaService.getSchemaDiff("diff-app", "diff-service", null, null);
+
+        assertEquals(1, diff.getFromVersion());
+        assertEquals(2, diff.getToVersion());
+        assertEquals(List.of("/orders"), diff.getPaths().getAdded());
+        assertEquals(List.of("GET /orders"), diff.getOperations().getAdded());
+
+        assertSame(diff, schemaService.getSchemaDiff("diff-app", "diff-service", 1, 2));
+        assertEquals(1, diffCache.stats().missCount());
+        assertEquals(1, diffCache.stats().hitCount());
+    }
+
+    @Test
+    void testGetSchemaDiff_FirstVersionHasNothingToCompare() {
+        when(schemaMapper.findLatestByApplicationNameAndServiceName("diff-app", "diff-service")).thenReturn(schemaDetails(11L, 2L, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> schemaService.getSchemaDiff("diff-app", "diff-service", null, null));
+    }
+
+    @Test
+    void testWarmLatestSchemas_LatestReadsAreServedFromCache() throws Exception {
+        ReflectionTestUtils.setField(schemaService, "schemaValidationExecutor", directExecutor(false));
+        SchemaStorageService storageService = (SchemaStorageService) ReflectionTestUtils.getField(schemaService, "storageService");
+        SchemaDetails accounts = schemaDetails(21L, 2L, 3);
+        accounts.setApplicationName("warm-app");
+        accounts.setServiceName("accounts");
+        accounts.setFilePath(storageService.commit(storageService.spool(new ByteArrayInputStream("accounts: 3".getBytes()))));
+        SchemaDetails billing = schemaDetails(22L, 3L, 5);
+        billing.setApplicationName("warm-app");
+        billing.setServiceName("billing");
+        billing.setFilePath(storageService.commit(storageService.spool(new ByteArrayInputStream("billing: 5".getBytes()))));
+        when(schemaMapper.findAllLatest()).thenReturn(List.of(accounts, billing));
+
+        assertEquals(3, schemaService.warmLatestSchemas());
+
+        assertEquals("accounts: 3", schemaService.getLatestSchema("warm-app", "accounts").getContent());
+        SchemaResponse applicationLatest = schemaService.getLatestSchema("warm-app", null);
+        assertEquals(5, applicationLatest.getVersion());
+        assertNull(applicationLatest.getServiceName());
+        assertEquals("billing: 5", applicationLatest.getContent());
+        verify(schemaMapper, never()).findLatestByApplicationNameAndServiceName(any(), any());
+        verify(schemaMapper, never()).findLatestByApplicationName(any());
+    }
+
+    private static Schema schema(Long id, Long serviceId, Integer version) {
+        Schema schema = new Schema(1L, serviceId, version, "legacy/" + id + ".json");
+        schema.setId(id);
+        return schema;
+    }
+
+    private static SchemaDetails schemaDetails(Long id, Long serviceId, Integer version) {
+        SchemaDetails details = new SchemaDetails();
+        details.setId(id);
+        details.setApplicationId(1L);
+        details.setServiceId(serviceId);
+        details.setMatchedServiceId(serviceId);
+        details.setVersion(version);
+        return details;
+    }
 }
@@ -0,0 +1,302 @@
+package com.project.coding_exercise.service;
+
+import com.project.coding_exercise.db.dto.SpooledUpload;
+import com.project.coding_exercise.db.dto.StoredBlob;
+import com.project.coding_exercise.serviceImpl.SchemaStorageServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaStorageServiceTest {
+
+    private static final String CONTENT = "{\"openapi\": \"3.0.0\"}";
+
+    @TempDir
+    Path storageDir;
+
+    private SchemaStorageServiceImpl storageService;
+
+    @BeforeEach
+    void setUp() {
+        storageService = new SchemaStorageServiceImpl();
+        ReflectionTestUtils.setField(storageService, "storagePath", storageDir.toString());
+    }
+
+    @Test
+    void testStore_ReturnsSha256OfContent() throws Exception {
+        String hash = store(CONTENT);
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(CONTENT.getBytes()));
+        assertEquals(expected, hash);
+        assertEquals(CONTENT, storageService.readContent(hash));
+    }
+
+    @Test
+    void testStore_IdenticalContentIsStoredOnce() throws Exception {
+        String first = store(CONTENT);
+        String second = store(CONTENT);
+
+        assertEquals(first, second);
+        try (Stream<Path> blobs = Files.walk(storageDir.resolve("blobs"))) {
+            assertEquals(1, blobs.filter(Files::isRegularFile).count());
+        }
+        try (Stream<Path> temps = Files.list(storageDir.resolve("tmp"))) {
+            assertEquals(0, temps.count());
+        }
+    }
+
+    @Test
+    void testStore_DifferentContentGetsDifferentBlobs() throws Exception {
+        String first = store(CONTENT);
+        String second = store(CONTENT + "\n");
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void testReadContent_LegacyAbsolutePath() throws Exception {
+        Path legacyFile = Files.writeString(storageDir.resolve("schema.json"), CONTENT);
+
+        assertEquals(CONTENT, storageService.readContent(legacyFile.toString()));
+    }
+
+    @Test
+    void testSpool_RejectsOversizedUpload() throws Exception {
+        ReflectionTestUtils.setField(storageService, "maxUploadBytes", 8L);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> storageService.spool(new ByteArrayInputStream(CONTENT.getBytes())));
+        try (Stream<Path> temps = Files.list(storageDir.resolve("tmp"))) {
+            assertEquals(0, temps.count());
+        }
+    }
+
+    @Test
+    void testDiscard_RemovesUncommittedSpool() throws Exception {
+        SpooledUpload upload = storageService.spool(new ByteArrayInputStream(CONTENT.getBytes()));
+
+        assertEquals(CONTENT.length(), upload.getSize());
+        assertTrue(Files.exists(upload.getTempFile()));
+
+        storageService.discard(upload);
+
+        assertFalse(Files.exists(upload.getTempFile()));
+    }
+
+    @Test
+    void testStore_GzipCompressionAtRest() throws Exception {
+        ReflectionTestUtils.setField(storageService, "compression", "gzip");
+        String content = CONTENT.repeat(100);
+
+        String hash = store(content);
+        StoredBlob blob = storageService.openBlob(hash);
+
+        assertEquals("gzip", blob.getContentEncoding());
+        assertTrue(blob.getPath().toString().endsWith(hash + ".gz"));
+        assertTrue(blob.getSize() < content.length());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(blob.getPath()))) {
+            assertEquals(content, new String(in.readAllBytes()));
+        }
+        assertEquals(content, storageService.readContent(hash));
+    }
+
+    @Test
+    void testStore_PlainBlobReusedAfterSwitchingToGzip() throws Exception {
+        String hash = store(CONTENT);
+        ReflectionTestUtils.setField(storageService, "compression", "gzip");
+
+        assertEquals(hash, store(CONTENT));
+        assertNull(storageService.openBlob(hash).getContentEncoding());
+    }
+
+    @Test
+    void testStore_DeltaAgainstPreviousVersionRebuildsTransparently() throws Exception {
+        ReflectionTestUtils.setField(storageService, "deltaEnabled", true);
+        String v1 = spec(200, "1.0.0");
+        String v2 = spec(201, "1.1.0");
+
+        String base = store(v1, null);
+        String hash = store(v2, base);
+
+        assertTrue(Files.exists(blobFile(hash, ".delta")));
+        assertTrue(Files.size(blobFile(hash, ".delta")) < v2.length() / 10);
+        assertEquals(v2, storageService.readContent(hash));
+
+        SchemaStorageServiceImpl coldStorage = new SchemaStorageServiceImpl();
+        ReflectionTestUtils.setField(coldStorage, "storagePath", storageDir.toString());
+        assertEquals(v2, coldStorage.readContent(hash));
+        assertEquals(v2.length(), coldStorage.openBlob(hash).getSize());
+    }
+
+    @Test
+    void testStore_DeltaChainLengthIsBounded() throws Exception {
+        ReflectionTestUtils.setField(storageService, "deltaEnabled", true);
+        ReflectionTestUtils.setField(storageService, "maxDeltaChain", 2);
+
+        String previous = null;
+        String[] hashes = new String[5];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = store(spec(100 + i, "1." + i), previous);
+            previous = hashes[i];
+        }
+
+        assertTrue(Files.exists(blobFile(hashes[0], "")));
+        assertTrue(Files.exists(blobFile(hashes[1], ".delta")));
+        assertTrue(Files.exists(blobFile(hashes[2], ".delta")));
+        assertTrue(Files.exists(blobFile(hashes[3], "")));
+        assertTrue(Files.exists(blobFile(hashes[4], ".delta")));
+        for (int i = 0; i < hashes.length; i++) {
+            assertEquals(spec(100 + i, "1." + i), storageService.readContent(hashes[i]));
+        }
+    }
+
+    @Test
+    void testStore_UnrelatedContentIsStoredInFull() throws Exception {
+        ReflectionTestUtils.setField(storageService, "deltaEnabled", true);
+
+        String base = store(spec(50, "1.0.0"), null);
+        String hash = store(CONTENT, base);
+
+        assertTrue(Files.exists(blobFile(hash, "")));
+        assertEquals(CONTENT, storageService.readContent(hash));
+    }
+
+    @Test
+    void testSegments_BlobsAreAppendedToASegmentAndReadFromAnyInstance() throws Exception {
+        ReflectionTestUtils.setField(storageService, "segmentsEnabled", true);
+        ReflectionTestUtils.setField(storageService, "compression", "gzip");
+        String content = spec(20, "1.0.0");
+
+        String plain = store(CONTENT);
+        String gzip = store(content);
+        StoredBlob blob = storageService.openBlob(gzip);
+
+        assertFalse(Files.exists(storageDir.resolve("blobs")));
+        assertEquals(1, segmentFiles(".seg"));
+        assertNull(blob.getPath());
+        assertNull(blob.getContent());
+        assertTrue(blob.getBuffer().isReadOnly());
+        assertEquals(blob.getSize(), blob.getBuffer().remaining());
+        assertEquals("gzip", blob.getContentEncoding());
+        assertTrue(blob.getSize() < content.length());
+        assertEquals(content, storageService.readContent(gzip));
+
+        SchemaStorageServiceImpl coldStorage = new SchemaStorageServiceImpl();
+        ReflectionTestUtils.setField(coldStorage, "storagePath", storageDir.toString());
+        assertEquals(CONTENT, coldStorage.readContent(plain));
+        assertEquals(content, coldStorage.readContent(gzip));
+    }
+
+    @Test
+    void testSegments_SealedAtMaxBytesWithRecordIndex() throws Exception {
+        ReflectionTestUtils.setField(storageService, "segmentsEnabled", true);
+        ReflectionTestUtils.setField(storageService, "maxSegmentBytes", 6000L);
+
+        String[] hashes = new String[3];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = store(spec(50, "1." + i));
+        }
+
+        assertEquals(3, segmentFiles(".seg"));
+        assertEquals(2, segmentFiles(".idx"));
+        SchemaStorageServiceImpl coldStorage = segmentStorage();
+        for (int i = 0; i < hashes.length; i++) {
+            assertEquals(spec(50, "1." + i), coldStorage.readContent(hashes[i]));
+        }
+    }
+
+    @Test
+    void testSegments_TornRecordIsDroppedOnRestart() throws Exception {
+        ReflectionTestUtils.setField(storageService, "segmentsEnabled", true);
+        String first = store(CONTENT);
+        Path segment = storageDir.resolve("segments").resolve("0000000000.seg");
+        long size = Files.size(segment);
+        Files.write(segment, new byte[] {0x53, 0x53, 0x47, 0x31, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        SchemaStorageServiceImpl restarted = segmentStorage();
+        assertEquals(CONTENT, restarted.readContent(first));
+        assertEquals(size, Files.size(segment));
+
+        storageService = restarted;
+        String second = store(CONTENT + "\n");
+        assertEquals(CONTENT + "\n", segmentStorage().readContent(second));
+    }
+
+    @Test
+    void testCompactSegments_DropsUnreferencedBlobsAndKeepsDeltaBases() throws Exception {
+        ReflectionTestUtils.setField(storageService, "segmentsEnabled", true);
+        ReflectionTestUtils.setField(storageService, "deltaEnabled", true);
+        ReflectionTestUtils.setField(storageService, "maxSegmentBytes", 6000L);
+
+        String orphan = store(spec(60, "0.9.0"), null);
+        String base = store(spec(50, "1.0.0"), null);
+        String delta = store(spec(51, "1.1.0"), base);
+        String latest = store(spec(30, "2.0.0"), null);
+        assertEquals(3, segmentFiles(".seg"));
+
+        SchemaStorageServiceImpl restarted = segmentStorage();
+        long reclaimed = restarted.compactSegments(() -> List.of(delta, latest));
+
+        assertTrue(reclaimed > spec(60, "0.9.0").length());
+        assertFalse(Files.exists(storageDir.resolve("segments").resolve("0000000000.seg")));
+        SchemaStorageServiceImpl coldStorage = segmentStorage();
+        assertEquals(spec(51, "1.1.0"), coldStorage.readContent(delta));
+        assertEquals(spec(50, "1.0.0"), coldStorage.readContent(base));
+        assertEquals(spec(30, "2.0.0"), coldStorage.readContent(latest));
+        assertThrows(NoSuchFileException.class, () -> coldStorage.readContent(orphan));
+    }
+
+    private String store(String content) throws Exception {
+        return store(content, null);
+    }
+
+    private String store(String content, String base) throws Exception {
+        SpooledUpload upload = storageService.spool(new ByteArrayInputStream(content.getBytes()));
+        try {
+            return storageService.commit(upload, base);
+        } finally {
+            storageService.discard(upload);
+        }
+    }
+
+    private SchemaStorageServiceImpl segmentStorage() {
+        SchemaStorageServiceImpl storage = new SchemaStorageServiceImpl();
+        ReflectionTestUtils.setField(storage, "storagePath", storageDir.toString());
+        ReflectionTestUtils.setField(storage, "segmentsEnabled", true);
+        ReflectionTestUtils.setField(storage, "maxSegmentBytes", 6000L);
+        return storage;
+    }
+
+    private long segmentFiles(String suffix) throws Exception {
+        try (Stream<Path> files = Files.list(storageDir.resolve("segments"))) {
+            return files.filter(path -> path.toString().endsWith(suffix)).count();
+        }
+    }
+
+    private Path blobFile(String hash, String suffix) {
+        return storageDir.resolve("blobs").resolve(hash.substring(0, 2)).resolve(hash + suffix);
+    }
+
+    private static String spec(int paths, String version) {
+        StringBuilder spec = new StringBuilder("openapi: 3.0.0\ninfo:\n  title: Test\n  version: " + version + "\npaths:\n");
+        for (int i = 0; i < paths; i++) {
+            spec.append("  /items/").append(i).append(":\n    get:\n      responses:\n        '200':\n          description: OK\n");
+        }
+        return spec.toString();
+    }
+}
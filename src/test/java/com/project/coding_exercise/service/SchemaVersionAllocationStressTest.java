@@ -0,0 +1,125 @@
+package com.project.coding_exercise.service;
+
+import com.project.coding_exercise.db.dto.SchemaUploadRequest;
+import com.project.coding_exercise.db.mapper.ApplicationMapper;
+import com.project.coding_exercise.db.mapper.SchemaMapper;
+import com.project.coding_exercise.db.mapper.ServiceMapper;
+import com.project.coding_exercise.db.model.Application;
+import com.project.coding_exercise.db.model.Schema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers uploadSchema from many threads across a handful of application/service keys and
+ * checks that every key ends up with versions 1..n, with no gaps and no duplicates.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:version-stress;DB_CLOSE_DELAY=-1")
+class SchemaVersionAllocationStressTest {
+
+    private static final int THREADS = 8;
+    private static final int UPLOADS_PER_THREAD = 40;
+    private static final String[][] KEYS = {
+            {"stress-app-1", "users"},
+            {"stress-app-1", "orders"},
+            {"stress-app-1", null},
+            {"stress-app-2", "users"},
+    };
+
+    private static final String SPEC = """
+            {
+                "openapi": "3.0.0",
+                "info": {
+                    "title": "Stress API",
+                    "version": "1.0.0"
+                },
+                "paths": {}
+            }
+            """;
+
+    @TempDir
+    static Path storageDir;
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("schema.storage.path", () -> storageDir.toString());
+    }
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @Autowired
+    private ApplicationMapper applicationMapper;
+
+    @Autowired
+    private ServiceMapper serviceMapper;
+
+    @Autowired
+    private SchemaMapper schemaMapper;
+
+    @Test
+    void testConcurrentUploads_NoGapsOrDuplicates(TestReporter reporter) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < UPLOADS_PER_THREAD; i++) {
+                    String[] key = KEYS[(thread + i) % KEYS.length];
+                    SchemaUploadRequest request = new SchemaUploadRequest();
+                    request.setApplicationName(key[0]);
+                    request.setServiceName(key[1]);
+                    request.setFile(new MockMultipartFile("file", "spec.json", "application/json", SPEC.getBytes()));
+                    schemaService.uploadSchema(request);
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        executor.shutdown();
+
+        int total = THREADS * UPLOADS_PER_THREAD;
+        reporter.publishEntry(Map.of(
+                "uploads", String.valueOf(total),
+                "threads", String.valueOf(THREADS),
+                "seconds", String.format("%.2f", seconds),
+                "uploadsPerSecond", String.format("%.1f", total / seconds)));
+
+        int expectedPerKey = total / KEYS.length;
+        for (String[] key : KEYS) {
+            Application application = applicationMapper.findByName(key[0]);
+            Long serviceId = key[1] != null ? serviceMapper.findByApplicationIdAndName(application.getId(), key[1]).getId() : null;
+            List<Schema> schemas = schemaMapper.findAllByApplicationAndService(application.getId(), serviceId);
+
+            assertEquals(expectedPerKey, schemas.size(), "uploads for " + key[0] + "/" + key[1]);
+            for (int i = 0; i < schemas.size(); i++) {
+                assertEquals(expectedPerKey - i, schemas.get(i).getVersion(), "versions of " + key[0] + "/" + key[1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.project.coding_exercise.service;
+
+import com.project.coding_exercise.serviceImpl.SchemaWarmup;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchemaWarmupTest {
+
+    @Test
+    void testHealth_OutOfServiceUntilWarmupCompletes() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SchemaService schemaService = mock(SchemaService.class);
+        when(schemaService.rebuildSearchIndex()).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return 4;
+        });
+        when(schemaService.warmLatestSchemas()).thenReturn(7);
+        SchemaWarmup warmup = new SchemaWarmup();
+        ReflectionTestUtils.setField(warmup, "schemaService", schemaService);
+
+        assertEquals(Status.OUT_OF_SERVICE, warmup.health().getStatus());
+        warmup.start();
+        assertEquals(Status.OUT_OF_SERVICE, warmup.health().getStatus());
+
+        release.countDown();
+        Health health = awaitUp(warmup);
+        assertEquals(4, health.getDetails().get("indexed"));
+        assertEquals(7, health.getDetails().get("warmed"));
+    }
+
+    @Test
+    void testStart_SkipsSearchRebuildWhenDisabled() throws Exception {
+        SchemaService schemaService = mock(SchemaService.class);
+        when(schemaService.warmLatestSchemas()).thenReturn(3);
+        SchemaWarmup warmup = new SchemaWarmup();
+        ReflectionTestUtils.setField(warmup, "schemaService", schemaService);
+        ReflectionTestUtils.setField(warmup, "rebuildSearchIndex", false);
+
+        warmup.start();
+
+        assertEquals(3, awaitUp(warmup).getDetails().get("warmed"));
+        verify(schemaService, never()).rebuildSearchIndex();
+    }
+
+    @Test
+    void testHealth_FailedWarmupDoesNotBlockReadiness() throws Exception {
+        SchemaService schemaService = mock(SchemaService.class);
+        when(schemaService.warmLatestSchemas()).thenThrow(new IllegalStateException("database unavailable"));
+        SchemaWarmup warmup = new SchemaWarmup();
+        ReflectionTestUtils.setField(warmup, "schemaService", schemaService);
+
+        warmup.start();
+
+        assertEquals("database unavailable", awaitUp(warmup).getDetails().get("error"));
+    }
+
+    private static Health awaitUp(SchemaWarmup warmup) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        Health health = warmup.health();
+        while (health.getStatus() != Status.UP && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            health = warmup.health();
+        }
+        assertEquals(Status.UP, health.getStatus());
+        return health;
+    }
+}
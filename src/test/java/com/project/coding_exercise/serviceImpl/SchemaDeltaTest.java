@@ -0,0 +1,52 @@
+package com.project.coding_exercise.serviceImpl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaDeltaTest {
+
+    @Test
+    void testRoundTrip_EditsInsertionsAndDeletions() throws Exception {
+        String base = lines("paths:", 300, "      type: string");
+        String target = "openapi: 3.1.0\n" + base.replace("line 10\n", "line ten\n").replace("line 200\n", "") + "tail\n";
+
+        assertRoundTrip(base, target);
+        assertTrue(SchemaDelta.encode(base.getBytes(), target.getBytes()).length < target.length() / 10);
+    }
+
+    @Test
+    void testRoundTrip_EdgeCases() throws Exception {
+        assertRoundTrip("", "");
+        assertRoundTrip("", "new content\n");
+        assertRoundTrip("old content\n", "");
+        assertRoundTrip("a\r\nb\r\nc", "a\r\nb\r\nc\r\nd");
+        assertRoundTrip("no newline at all", "no newline at all, extended");
+    }
+
+    @Test
+    void testApply_RejectsTruncatedDelta() {
+        byte[] base = lines("base", 20, "x").getBytes();
+        byte[] target = lines("target", 20, "y").getBytes();
+        byte[] delta = SchemaDelta.encode(base, target);
+
+        assertThrows(IOException.class, () -> SchemaDelta.apply(base, new ByteArrayInputStream(delta, 0, delta.length - 3), target.length));
+    }
+
+    private static void assertRoundTrip(String base, String target) throws IOException {
+        byte[] delta = SchemaDelta.encode(base.getBytes(), target.getBytes());
+        byte[] rebuilt = SchemaDelta.apply(base.getBytes(), new ByteArrayInputStream(delta), target.getBytes().length);
+        assertEquals(target, new String(rebuilt));
+    }
+
+    private static String lines(String header, int count, String repeated) {
+        StringBuilder text = new StringBuilder(header).append('\n');
+        for (int i = 0; i < count; i++) {
+            text.append("line ").append(i).append('\n').append(repeated).append('\n');
+        }
+        return text.toString();
+    }
+}
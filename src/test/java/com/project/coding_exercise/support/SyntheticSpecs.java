@@ -0,0 +1,62 @@
+package com.project.coding_exercise.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates synthetic OpenAPI documents of a given size for the benchmarks and the load
+ * test. Every path has a GET and a POST sharing a component schema, so the resolver has
+ * real {@code $ref}s to follow.
+ */
+public final class SyntheticSpecs {
+
+    private SyntheticSpecs() {}
+
+    public static int pathCount(String size) {
+        return switch (size) {
+            case "small" -> 5;
+            case "medium" -> 200;
+            case "large" -> 5000;
+            default -> throw new IllegalArgumentException("Unknown spec size: " + size);
+        };
+    }
+
+    public static String generate(String size, String format, String version) throws Exception {
+        Map<String, Object> paths = new LinkedHashMap<>();
+        Map<String, Object> schemas = new LinkedHashMap<>();
+        for (int i = 0; i < pathCount(size); i++) {
+            String model = "Resource" + i;
+            schemas.put(model, Map.of(
+                    "type", "object",
+                    "required", List.of("id"),
+                    "properties", Map.of(
+                            "id", Map.of("type", "string", "format", "uuid"),
+                            "name", Map.of("type", "string", "maxLength", 200),
+                            "count", Map.of("type", "integer", "format", "int64"))));
+            Map<String, Object> content = Map.of("application/json",
+                    Map.of("schema", Map.of("$ref", "#/components/schemas/" + model)));
+            paths.put("/resources" + i + "/{id}", Map.of(
+                    "parameters", List.of(Map.of("name", "id", "in", "path", "required", true, "schema", Map.of("type", "string"))),
+                    "get", Map.of(
+                            "operationId", "get" + model,
+                            "tags", List.of("group" + (i % 10)),
+                            "responses", Map.of("200", Map.of("description", "Found", "content", content))),
+                    "post", Map.of(
+                            "operationId", "update" + model,
+                            "requestBody", Map.of("content", content),
+                            "responses", Map.of("200", Map.of("description", "Updated", "content", content)))));
+        }
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("openapi", "3.0.3");
+        document.put("info", Map.of("title", "Benchmark API", "version", version));
+        document.put("paths", paths);
+        document.put("components", Map.of("schemas", schemas));
+
+        ObjectMapper mapper = "yaml".equals(format) ? new YAMLMapper() : new ObjectMapper();
+        return mapper.writeValueAsString(document);
+    }
+}